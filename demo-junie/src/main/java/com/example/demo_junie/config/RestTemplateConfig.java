@@ -1,22 +1,117 @@
 package com.example.demo_junie.config;
 
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration class for RestTemplate.
+ * Backs the RestTemplate with a pooled, keep-alive Apache HttpClient so that upstream calls
+ * reuse TCP/TLS connections instead of opening a new connection per request.
  */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${jsonplaceholder.api.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${jsonplaceholder.api.max-connections-per-route:100}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${jsonplaceholder.api.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${jsonplaceholder.api.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${jsonplaceholder.api.connection-request-timeout:1s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${jsonplaceholder.api.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${jsonplaceholder.api.connection-ttl:5m}")
+    private Duration connectionTtl;
+
+    /**
+     * Creates the pooled connection manager shared by all upstream requests.
+     *
+     * @return the connection manager
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager upstreamConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                // LIFO keeps a small set of hot connections alive and lets the rest go idle and get evicted
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTtl))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Creates the HTTP client used for upstream calls.
+     * Requests advertise {@code Accept-Encoding: gzip, x-gzip, deflate, br}, and compressed responses are
+     * decompressed as they are read, so streamed responses stay streamed (brotli needs {@code org.brotli:dec}).
+     *
+     * @param connectionManager the pooled connection manager
+     * @return the HTTP client
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient upstreamHttpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
     /**
      * Creates a RestTemplate bean to be used for making HTTP requests.
      *
+     * @param httpClient the pooled HTTP client
      * @return a configured RestTemplate instance
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * Publishes pool usage (leased, available, pending and max connections) as metrics.
+     * The binder is registered with the meter registry automatically.
+     *
+     * @param connectionManager the pooled connection manager
+     * @return the metrics binder
+     */
+    @Bean
+    public PoolingHttpClientConnectionManagerMetricsBinder upstreamConnectionPoolMetrics(
+            PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "jsonplaceholder");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.example.demo_junie.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Configuration class for the non-blocking WebClient used in the reactive upstream mode.
+ * Only active when {@code jsonplaceholder.api.client=reactive}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jsonplaceholder.api.client", havingValue = "reactive")
+public class WebClientConfig {
+
+    @Value("${jsonplaceholder.api.base-url}")
+    private String baseUrl;
+
+    @Value("${jsonplaceholder.api.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${jsonplaceholder.api.read-timeout:5s}")
+    private Duration readTimeout;
+
+    /**
+     * Creates a WebClient bean backed by the JDK HTTP client, which multiplexes requests over
+     * HTTP/2 where the upstream supports it and never blocks the calling thread.
+     *
+     * @return a configured WebClient instance
+     */
+    @Bean
+    public WebClient upstreamWebClient() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        JdkClientHttpConnector connector = new JdkClientHttpConnector(httpClient);
+        connector.setReadTimeout(readTimeout);
+
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(connector)
+                .build();
+    }
+}
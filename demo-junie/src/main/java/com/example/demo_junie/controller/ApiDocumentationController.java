@@ -1,191 +1,309 @@
 package com.example.demo_junie.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
 /**
  * Controller for API documentation.
  * Provides a simple HTML page with information about the available API endpoints.
+ * The page never changes at runtime, so it is encoded and gzip-compressed once and every request
+ * is answered with the prepared bytes.
  */
 @Controller
 @RequestMapping("/api-docs")
 public class ApiDocumentationController {
 
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    private static final String DOCUMENTATION = """
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <title>Posts API Documentation</title>
+                <style>
+                    body { font-family: Arial, sans-serif; margin: 20px; }
+                    h1 { color: #333; }
+                    h2 { color: #555; margin-top: 30px; }
+                    .endpoint { background-color: #f5f5f5; padding: 15px; margin: 10px 0; border-radius: 5px; }
+                    .method { font-weight: bold; color: #0066cc; }
+                    .path { font-family: monospace; }
+                    .description { margin: 10px 0; }
+                    .params { margin-left: 20px; }
+                    .response { margin-left: 20px; }
+                    pre { background-color: #eee; padding: 10px; border-radius: 3px; overflow-x: auto; }
+                </style>
+            </head>
+            <body>
+                <h1>Posts API Documentation</h1>
+                <p>This API provides endpoints for managing posts using the JSONPlaceholder service.</p>
+                
+                <h2>Endpoints</h2>
+                
+                <div class="endpoint">
+                    <div><span class="method">GET</span> <span class="path">/api/posts</span></div>
+                    <div class="description">Retrieves a list of all posts.</div>
+                    <div class="params">
+                        <strong>Query Parameters (optional):</strong>
+                        <ul>
+                            <li><code>page</code>, <code>size</code> - 1-based page number and page size (1-100, default 10)</li>
+                            <li><code>userId</code> - Only posts by this author</li>
+                            <li><code>fields</code> - Comma-separated fields to return, e.g. <code>id,title</code></li>
+                            <li><code>ids</code> - Comma-separated post IDs; returns just those posts in request order</li>
+                            <li><code>stream=true</code> - Streams the full list as it is read from the upstream</li>
+                        </ul>
+                        <strong>Headers (optional):</strong>
+                        <ul>
+                            <li><code>If-None-Match</code> - The <code>ETag</code> of a previous response; returns 304 Not Modified if unchanged</li>
+                        </ul>
+                    </div>
+                    <div class="response">
+                        <strong>Response:</strong> 200 OK
+                        <pre>
+            [
+              {
+                "id": 1,
+                "userId": 1,
+                "title": "Post title",
+                "body": "Post body"
+              },
+              {
+                "id": 2,
+                "userId": 1,
+                "title": "Another post title",
+                "body": "Another post body"
+              }
+            ]
+                        </pre>
+                    </div>
+                </div>
+                
+                <div class="endpoint">
+                    <div><span class="method">GET</span> <span class="path">/api/posts/{id}</span></div>
+                    <div class="description">Retrieves a specific post by its ID.</div>
+                    <div class="params">
+                        <strong>Path Parameters:</strong>
+                        <ul>
+                            <li><code>id</code> - The ID of the post to retrieve</li>
+                        </ul>
+                        <strong>Headers (optional):</strong>
+                        <ul>
+                            <li><code>If-None-Match</code> - The <code>ETag</code> of a previous response; returns 304 Not Modified if unchanged</li>
+                        </ul>
+                    </div>
+                    <div class="response">
+                        <strong>Response:</strong> 200 OK
+                        <pre>
+            {
+              "id": 1,
+              "userId": 1,
+              "title": "Post title",
+              "body": "Post body"
+            }
+                        </pre>
+                        <strong>Error Response:</strong> 404 Not Found if the post with the specified ID does not exist
+                    </div>
+                </div>
+                
+                <div class="endpoint">
+                    <div><span class="method">GET</span> <span class="path">/api/posts/search</span></div>
+                    <div class="description">Searches post titles and bodies, best match first.</div>
+                    <div class="params">
+                        <strong>Query Parameters:</strong>
+                        <ul>
+                            <li><code>q</code> - The words to search for</li>
+                            <li><code>size</code> - Maximum number of results, 1-100 (optional, default 10)</li>
+                        </ul>
+                    </div>
+                    <div class="response">
+                        <strong>Response:</strong> 200 OK with the matching posts
+                        <strong>Error Response:</strong> 400 Bad Request if a parameter is invalid
+                    </div>
+                </div>
+                
+                <div class="endpoint">
+                    <div><span class="method">GET</span> <span class="path">/api/users/{id}/posts</span></div>
+                    <div class="description">Retrieves the posts written by a user, served from the local post store.</div>
+                    <div class="params">
+                        <strong>Path Parameters:</strong>
+                        <ul>
+                            <li><code>id</code> - The ID of the user</li>
+                        </ul>
+                        <strong>Query Parameters:</strong>
+                        <ul>
+                            <li><code>page</code> - 1-based page number (optional)</li>
+                            <li><code>size</code> - Page size, 1-100 (optional, default 10)</li>
+                            <li><code>fields</code> - Comma-separated fields to return, e.g. <code>id,title</code> (optional)</li>
+                        </ul>
+                    </div>
+                    <div class="response">
+                        <strong>Response:</strong> 200 OK with the user's posts ordered by ID
+                        <strong>Error Response:</strong> 400 Bad Request if a parameter is invalid
+                    </div>
+                </div>
+                
+                <div class="endpoint">
+                    <div><span class="method">POST</span> <span class="path">/api/posts</span></div>
+                    <div class="description">Creates a new post.</div>
+                    <div class="params">
+                        <strong>Request Body:</strong>
+                        <pre>
+            {
+              "userId": 1,
+              "title": "New post title",
+              "body": "New post body"
+            }
+                        </pre>
+                    </div>
+                    <div class="response">
+                        <strong>Response:</strong> 201 Created
+                        <pre>
+            {
+              "id": 101,
+              "userId": 1,
+              "title": "New post title",
+              "body": "New post body"
+            }
+                        </pre>
+                        <strong>Error Response:</strong> 400 Bad Request if the post could not be created
+                    </div>
+                </div>
+                
+                <div class="endpoint">
+                    <div><span class="method">POST</span> <span class="path">/api/posts/batch</span></div>
+                    <div class="description">Creates, updates and deletes many posts in one request; the operations run against the upstream in parallel.</div>
+                    <div class="params">
+                        <strong>Request Body:</strong>
+                        <pre>
+            [
+              { "op": "create", "post": { "userId": 1, "title": "New post title", "body": "New post body" } },
+              { "op": "update", "id": 1, "post": { "userId": 1, "title": "Updated title", "body": "Updated body" } },
+              { "op": "delete", "id": 2 }
+            ]
+                        </pre>
+                    </div>
+                    <div class="response">
+                        <strong>Response:</strong> 200 OK with one result per operation, in request order
+                        <pre>
+            [
+              { "index": 0, "status": 201, "post": { "id": 101, "userId": 1, "title": "New post title", "body": "New post body" } },
+              { "index": 1, "status": 200, "post": { "id": 1, "userId": 1, "title": "Updated title", "body": "Updated body" } },
+              { "index": 2, "status": 204 }
+            ]
+                        </pre>
+                        <strong>Error Response:</strong> 400 Bad Request if the batch is empty or too large
+                    </div>
+                </div>
+                
+                <div class="endpoint">
+                    <div><span class="method">PUT</span> <span class="path">/api/posts/{id}</span></div>
+                    <div class="description">Updates an existing post.</div>
+                    <div class="params">
+                        <strong>Path Parameters:</strong>
+                        <ul>
+                            <li><code>id</code> - The ID of the post to update</li>
+                        </ul>
+                        <strong>Request Body:</strong>
+                        <pre>
+            {
+              "userId": 1,
+              "title": "Updated post title",
+              "body": "Updated post body"
+            }
+                        </pre>
+                    </div>
+                    <div class="response">
+                        <strong>Response:</strong> 200 OK
+                        <pre>
+            {
+              "id": 1,
+              "userId": 1,
+              "title": "Updated post title",
+              "body": "Updated post body"
+            }
+                        </pre>
+                        <strong>Error Response:</strong> 404 Not Found if the post with the specified ID does not exist
+                    </div>
+                </div>
+                
+                <div class="endpoint">
+                    <div><span class="method">DELETE</span> <span class="path">/api/posts/{id}</span></div>
+                    <div class="description">Deletes a post by its ID.</div>
+                    <div class="params">
+                        <strong>Path Parameters:</strong>
+                        <ul>
+                            <li><code>id</code> - The ID of the post to delete</li>
+                        </ul>
+                    </div>
+                    <div class="response">
+                        <strong>Response:</strong> 204 No Content
+                        <strong>Error Response:</strong> 404 Not Found if the post with the specified ID does not exist
+                    </div>
+                </div>
+                
+                <h2>Models</h2>
+                
+                <h3>Post</h3>
+                <pre>
+            {
+              "id": Long,       // The unique identifier of the post
+              "userId": Long,   // The ID of the user who created the post
+              "title": String,  // The title of the post
+              "body": String    // The content of the post
+            }
+                </pre>
+                
+                <h2>Notes</h2>
+                <ul>
+                    <li>This API interacts with the JSONPlaceholder service (https://jsonplaceholder.typicode.com).</li>
+                    <li>JSONPlaceholder is a fake online REST API for testing and prototyping.</li>
+                    <li>The JSONPlaceholder service doesn't actually create, update, or delete resources on its server, but it simulates these operations and returns appropriate responses.</li>
+                </ul>
+            </body>
+            </html>
+            """;
+
+    private static final byte[] HTML = DOCUMENTATION.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIPPED_HTML = gzip(HTML);
+    private static final String ETAG = ETags.of(DOCUMENTATION);
+
     /**
      * Returns an HTML page with API documentation.
+     * Clients that accept gzip get the precompressed page; the servlet container does not compress
+     * a response that already has a Content-Encoding.
      *
-     * @return HTML content with API documentation
+     * @param ifNoneMatch the entity tags of the representations the client already holds
+     * @param acceptEncoding the content codings the client accepts
+     * @return HTML content with API documentation, or a 304 Not Modified if the client's copy is current
      */
     @GetMapping(produces = "text/html")
     @ResponseBody
-    public String getApiDocumentation() {
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <title>Posts API Documentation</title>
-                    <style>
-                        body { font-family: Arial, sans-serif; margin: 20px; }
-                        h1 { color: #333; }
-                        h2 { color: #555; margin-top: 30px; }
-                        .endpoint { background-color: #f5f5f5; padding: 15px; margin: 10px 0; border-radius: 5px; }
-                        .method { font-weight: bold; color: #0066cc; }
-                        .path { font-family: monospace; }
-                        .description { margin: 10px 0; }
-                        .params { margin-left: 20px; }
-                        .response { margin-left: 20px; }
-                        pre { background-color: #eee; padding: 10px; border-radius: 3px; overflow-x: auto; }
-                    </style>
-                </head>
-                <body>
-                    <h1>Posts API Documentation</h1>
-                    <p>This API provides endpoints for managing posts using the JSONPlaceholder service.</p>
-                    
-                    <h2>Endpoints</h2>
-                    
-                    <div class="endpoint">
-                        <div><span class="method">GET</span> <span class="path">/api/posts</span></div>
-                        <div class="description">Retrieves a list of all posts.</div>
-                        <div class="response">
-                            <strong>Response:</strong> 200 OK
-                            <pre>
-                [
-                  {
-                    "id": 1,
-                    "userId": 1,
-                    "title": "Post title",
-                    "body": "Post body"
-                  },
-                  {
-                    "id": 2,
-                    "userId": 1,
-                    "title": "Another post title",
-                    "body": "Another post body"
-                  }
-                ]
-                            </pre>
-                        </div>
-                    </div>
-                    
-                    <div class="endpoint">
-                        <div><span class="method">GET</span> <span class="path">/api/posts/{id}</span></div>
-                        <div class="description">Retrieves a specific post by its ID.</div>
-                        <div class="params">
-                            <strong>Path Parameters:</strong>
-                            <ul>
-                                <li><code>id</code> - The ID of the post to retrieve</li>
-                            </ul>
-                        </div>
-                        <div class="response">
-                            <strong>Response:</strong> 200 OK
-                            <pre>
-                {
-                  "id": 1,
-                  "userId": 1,
-                  "title": "Post title",
-                  "body": "Post body"
-                }
-                            </pre>
-                            <strong>Error Response:</strong> 404 Not Found if the post with the specified ID does not exist
-                        </div>
-                    </div>
-                    
-                    <div class="endpoint">
-                        <div><span class="method">POST</span> <span class="path">/api/posts</span></div>
-                        <div class="description">Creates a new post.</div>
-                        <div class="params">
-                            <strong>Request Body:</strong>
-                            <pre>
-                {
-                  "userId": 1,
-                  "title": "New post title",
-                  "body": "New post body"
-                }
-                            </pre>
-                        </div>
-                        <div class="response">
-                            <strong>Response:</strong> 201 Created
-                            <pre>
-                {
-                  "id": 101,
-                  "userId": 1,
-                  "title": "New post title",
-                  "body": "New post body"
-                }
-                            </pre>
-                            <strong>Error Response:</strong> 400 Bad Request if the post could not be created
-                        </div>
-                    </div>
-                    
-                    <div class="endpoint">
-                        <div><span class="method">PUT</span> <span class="path">/api/posts/{id}</span></div>
-                        <div class="description">Updates an existing post.</div>
-                        <div class="params">
-                            <strong>Path Parameters:</strong>
-                            <ul>
-                                <li><code>id</code> - The ID of the post to update</li>
-                            </ul>
-                            <strong>Request Body:</strong>
-                            <pre>
-                {
-                  "userId": 1,
-                  "title": "Updated post title",
-                  "body": "Updated post body"
-                }
-                            </pre>
-                        </div>
-                        <div class="response">
-                            <strong>Response:</strong> 200 OK
-                            <pre>
-                {
-                  "id": 1,
-                  "userId": 1,
-                  "title": "Updated post title",
-                  "body": "Updated post body"
-                }
-                            </pre>
-                            <strong>Error Response:</strong> 404 Not Found if the post with the specified ID does not exist
-                        </div>
-                    </div>
-                    
-                    <div class="endpoint">
-                        <div><span class="method">DELETE</span> <span class="path">/api/posts/{id}</span></div>
-                        <div class="description">Deletes a post by its ID.</div>
-                        <div class="params">
-                            <strong>Path Parameters:</strong>
-                            <ul>
-                                <li><code>id</code> - The ID of the post to delete</li>
-                            </ul>
-                        </div>
-                        <div class="response">
-                            <strong>Response:</strong> 204 No Content
-                            <strong>Error Response:</strong> 404 Not Found if the post with the specified ID does not exist
-                        </div>
-                    </div>
-                    
-                    <h2>Models</h2>
-                    
-                    <h3>Post</h3>
-                    <pre>
-                {
-                  "id": Long,       // The unique identifier of the post
-                  "userId": Long,   // The ID of the user who created the post
-                  "title": String,  // The title of the post
-                  "body": String    // The content of the post
-                }
-                    </pre>
-                    
-                    <h2>Notes</h2>
-                    <ul>
-                        <li>This API interacts with the JSONPlaceholder service (https://jsonplaceholder.typicode.com).</li>
-                        <li>JSONPlaceholder is a fake online REST API for testing and prototyping.</li>
-                        <li>The JSONPlaceholder service doesn't actually create, update, or delete resources on its server, but it simulates these operations and returns appropriate responses.</li>
-                    </ul>
-                </body>
-                </html>
-                """;
+    public ResponseEntity<byte[]> getApiDocumentation(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (ETags.matches(ifNoneMatch, ETAG)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETAG).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(TEXT_HTML_UTF8)
+                .eTag(ETAG)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(GZIPPED_HTML);
+        }
+        return response.body(HTML);
     }
     
     /**
@@ -197,4 +315,45 @@ public class ApiDocumentationController {
     public String redirectToApiDocs() {
         return "redirect:/api-docs";
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks whether an Accept-Encoding header allows gzip, i.e. names it (or {@code *}) without {@code q=0}.
+     *
+     * @param acceptEncoding the Accept-Encoding request header, or null
+     * @return true if a gzip-encoded response is acceptable
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") && isZero(param.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // q=0, 0.0, 0.00 or 0.000 means "not acceptable"
+    private static boolean isZero(String qvalue) {
+        return qvalue.matches("0(\\.0{0,3})?");
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo_junie.controller;
+
+import com.example.demo_junie.model.InvalidPostQueryException;
+import com.example.demo_junie.service.BatchCapacityExceededException;
+import com.example.demo_junie.service.UpstreamFailureException;
+import com.example.demo_junie.service.UpstreamUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.Duration;
+
+/**
+ * Maps exceptions thrown by the REST controllers to error responses.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Handles invalid query, lookup, search and batch parameters.
+     * Other IllegalArgumentExceptions are server errors and are not echoed to the client.
+     *
+     * @param e the exception describing the invalid parameter
+     * @return a 400 Bad Request with the reason
+     */
+    @ExceptionHandler(InvalidPostQueryException.class)
+    public ResponseEntity<String> handleInvalidQuery(InvalidPostQueryException e) {
+        return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+    }
+
+    /**
+     * Handles requests whose upstream call was rejected by the circuit breaker or a bulkhead.
+     *
+     * @param e the rejection
+     * @return a 503 Service Unavailable response asking the client to retry
+     */
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<String> handleUpstreamUnavailable(UpstreamUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(e.getRetryAfter())))
+                .body("Error: Upstream service is unavailable, please try again later");
+    }
+
+    /**
+     * Handles batches and ID lookups that were not admitted because too many operations are pending.
+     *
+     * @param e the rejection
+     * @return a 503 Service Unavailable response asking the client to retry
+     */
+    @ExceptionHandler(BatchCapacityExceededException.class)
+    public ResponseEntity<String> handleBatchCapacityExceeded(BatchCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(e.getRetryAfter())))
+                .body("Error: Too many batch operations are pending, please try again later");
+    }
+
+    /**
+     * Handles requests whose upstream call was made but failed.
+     *
+     * @param e the failure
+     * @return a 502 Bad Gateway response
+     */
+    @ExceptionHandler(UpstreamFailureException.class)
+    public ResponseEntity<String> handleUpstreamFailure(UpstreamFailureException e) {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body("Error: Upstream service failed, please try again later");
+    }
+
+    /**
+     * Converts a retry hint to the whole seconds of a Retry-After header, rounding up to at least one.
+     *
+     * @param retryAfter how long the client should wait
+     * @return the number of seconds
+     */
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.demo_junie.controller;
 
+import com.example.demo_junie.security.PasswordHashingRejectedException;
 import com.example.demo_junie.security.dto.JwtResponse;
 import com.example.demo_junie.security.dto.LoginRequest;
 import com.example.demo_junie.security.dto.RegisterRequest;
 import com.example.demo_junie.security.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller for authentication operations.
+ * Login and registration run on the password hashing pool; the request thread is released while BCrypt runs.
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -27,9 +33,8 @@ public class AuthController {
      * @return the JWT response
      */
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        JwtResponse jwtResponse = authService.authenticateUser(loginRequest);
-        return ResponseEntity.ok(jwtResponse);
+    public CompletableFuture<ResponseEntity<JwtResponse>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return authService.authenticateUserAsync(loginRequest).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -39,11 +44,26 @@ public class AuthController {
      * @return a success message if the user was registered successfully, an error message otherwise
      */
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
-        if (authService.registerUser(registerRequest)) {
-            return ResponseEntity.ok("User registered successfully!");
-        } else {
-            return ResponseEntity.badRequest().body("Error: Username or email is already taken!");
-        }
+    public CompletableFuture<ResponseEntity<String>> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
+        return authService.registerUserAsync(registerRequest).thenApply(registered -> {
+            if (registered) {
+                return ResponseEntity.ok("User registered successfully!");
+            } else {
+                return ResponseEntity.badRequest().body("Error: Username or email is already taken!");
+            }
+        });
+    }
+
+    /**
+     * Handles requests rejected because password hashing is saturated.
+     *
+     * @param e the rejection
+     * @return a 503 Service Unavailable response asking the client to retry
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<String> handlePasswordHashingRejected(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Error: Server is busy, please try again later");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.example.demo_junie.controller;
+
+import com.example.demo_junie.model.ContentHash;
+import com.example.demo_junie.model.Post;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Entity tags for post representations and other fixed content, and conditional GET handling.
+ * Tags are derived from the cached content hashes of the posts, so computing the tag of a list costs
+ * one mixing step per post. They are weak, because the same representation may be sent gzip-compressed
+ * or not (Tomcat also never compresses a response that carries a strong tag).
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Returns the entity tag of a single post.
+     *
+     * @param post the post
+     * @return the weak entity tag
+     */
+    static String of(Post post) {
+        return quote(post.getContentHash());
+    }
+
+    /**
+     * Returns the entity tag of a list of posts; it changes when any post, the order or the size changes.
+     *
+     * @param posts the posts
+     * @return the weak entity tag
+     */
+    static String of(List<Post> posts) {
+        long hash = ContentHash.mix(ContentHash.OFFSET_BASIS, posts.size());
+        for (Post post : posts) {
+            hash = ContentHash.mix(hash, post.getContentHash());
+        }
+        return quote(hash);
+    }
+
+    /**
+     * Returns the entity tag of a fixed text representation, such as a static page.
+     *
+     * @param content the content
+     * @return the weak entity tag
+     */
+    static String of(String content) {
+        return quote(ContentHash.mix(ContentHash.OFFSET_BASIS, content));
+    }
+
+    /**
+     * Builds a 200 OK response carrying the entity tag, or a bodiless 304 Not Modified if the
+     * client's If-None-Match header already names that tag.
+     *
+     * @param ifNoneMatch the If-None-Match request header, or null
+     * @param etag the entity tag of the current representation
+     * @param body the current representation
+     * @return the response
+     */
+    static <T> ResponseEntity<T> conditional(String ifNoneMatch, String etag, T body) {
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    /**
+     * Evaluates an If-None-Match header against an entity tag, using the weak comparison
+     * that RFC 9110 prescribes for If-None-Match.
+     *
+     * @param ifNoneMatch the If-None-Match request header, or null
+     * @param etag the entity tag of the current representation
+     * @return true if the header names the tag or is {@code *}
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String quote(long hash) {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+}
@@ -1,45 +1,161 @@
 package com.example.demo_junie.controller;
 
+import com.example.demo_junie.dto.PostBatchOperation;
+import com.example.demo_junie.dto.PostBatchResult;
+import com.example.demo_junie.model.InvalidPostQueryException;
 import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
+import com.example.demo_junie.service.PostBatchService;
 import com.example.demo_junie.service.PostService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for handling Post-related requests.
+ * Handlers return futures, so with a non-blocking PostService the servlet thread is released
+ * while the upstream call is in flight.
+ * Post and post list responses carry an ETag and honour If-None-Match with 304 Not Modified.
  */
 @RestController
 @RequestMapping("/api/posts")
 public class PostController {
 
     private final PostService postService;
+    private final PostBatchService postBatchService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor for PostController.
      *
      * @param postService the service to use for post operations
+     * @param postBatchService the service to use for batch operations
+     * @param objectMapper the ObjectMapper used to write streamed responses
      */
     @Autowired
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostBatchService postBatchService, ObjectMapper objectMapper) {
         this.postService = postService;
+        this.postBatchService = postBatchService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Retrieves all posts.
+     * Retrieves all posts, optionally filtered by author, paged and reduced to a sparse fieldset.
+     * With {@code ids}, retrieves just those posts instead; they are looked up in parallel.
      * Accessible by any authenticated user.
      *
-     * @return a list of all posts
+     * @param ids the IDs of the posts to retrieve; cannot be combined with page, size or userId
+     * @param page the 1-based page number
+     * @param size the page size, at most {@value PostQuery#MAX_PAGE_SIZE}
+     * @param userId the author to filter by
+     * @param fields a comma-separated list of fields to return, e.g. {@code id,title}
+     * @param ifNoneMatch the entity tags of the representations the client already holds
+     * @return a list of the matching posts (for {@code ids}: the existing posts, in request order),
+     *         a 304 Not Modified if the client's copy is current, or a 400 Bad Request if a parameter is invalid
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Post>> getAllPosts() {
-        List<Post> posts = postService.getAllPosts();
-        return ResponseEntity.ok(posts);
+    public CompletableFuture<ResponseEntity<List<Post>>> getAllPosts(@RequestParam(required = false) List<Long> ids,
+                                                                     @RequestParam(required = false) Integer page,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     @RequestParam(required = false) Long userId,
+                                                                     @RequestParam(required = false) String fields,
+                                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ids != null) {
+            if (page != null || size != null || userId != null) {
+                throw new InvalidPostQueryException("ids cannot be combined with page, size or userId");
+            }
+            PostQuery projection = new PostQuery(null, null, null, fields);
+            return postBatchService.getPostsByIds(ids)
+                    .thenApply(posts -> listResponse(ifNoneMatch, projection.apply(posts)));
+        }
+        if (page == null && size == null && userId == null && fields == null) {
+            return postService.getAllPostsAsync().thenApply(posts -> listResponse(ifNoneMatch, posts));
+        }
+        PostQuery query = new PostQuery(page, size, userId, fields);
+        return postService.findPostsAsync(query).thenApply(posts -> listResponse(ifNoneMatch, posts));
+    }
+
+    /**
+     * Retrieves all posts as a streamed JSON array.
+     * Each post is written to the response as soon as it is decoded from the upstream, so memory
+     * use per request stays constant regardless of the collection size.
+     * If the upstream fails partway through, the array is left unterminated and the response is aborted,
+     * so clients cannot mistake a truncated list for a complete one.
+     * Accessible by any authenticated user.
+     *
+     * @param ids must be absent; queries are not supported on streamed responses
+     * @param page must be absent
+     * @param size must be absent
+     * @param userId must be absent
+     * @param fields must be absent
+     * @return a response body that writes all posts as a JSON array, or a 400 Bad Request if a query parameter is given
+     */
+    @GetMapping(params = "stream=true")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamAllPosts(@RequestParam(required = false) List<Long> ids,
+                                                                @RequestParam(required = false) Integer page,
+                                                                @RequestParam(required = false) Integer size,
+                                                                @RequestParam(required = false) Long userId,
+                                                                @RequestParam(required = false) String fields) {
+        if (ids != null || page != null || size != null || userId != null || fields != null) {
+            throw new InvalidPostQueryException("stream cannot be combined with ids, page, size, userId or fields");
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                // The servlet container owns the response stream
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Closing the generator after a failure must not complete the array
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartArray();
+                postService.forEachPost(post -> {
+                    try {
+                        generator.writeObject(post);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Searches post titles and bodies for any of the given words; matches in the title rank higher.
+     * Accessible by any authenticated user.
+     *
+     * @param q the free-text query
+     * @param size the maximum number of posts to return, at most {@value PostQuery#MAX_PAGE_SIZE}
+     * @return a list of the best matching posts, best match first, or a 400 Bad Request if a parameter is invalid
+     */
+    @GetMapping("/search")
+    @PreAuthorize("isAuthenticated()")
+    public CompletableFuture<ResponseEntity<List<Post>>> searchPosts(@RequestParam String q,
+                                                                     @RequestParam(required = false) Integer size) {
+        if (!StringUtils.hasText(q)) {
+            throw new InvalidPostQueryException("q must not be empty");
+        }
+        if (size != null && (size < 1 || size > PostQuery.MAX_PAGE_SIZE)) {
+            throw new InvalidPostQueryException("size must be between 1 and " + PostQuery.MAX_PAGE_SIZE);
+        }
+        int limit = size != null ? size : PostQuery.DEFAULT_PAGE_SIZE;
+        return postService.searchPostsAsync(q, limit).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -47,17 +163,21 @@ public class PostController {
      * Accessible by any authenticated user.
      *
      * @param id the ID of the post to retrieve
-     * @return the post with the specified ID, or a 404 Not Found if not found
+     * @param ifNoneMatch the entity tags of the representations the client already holds
+     * @return the post with the specified ID, a 304 Not Modified if the client's copy is current,
+     *         or a 404 Not Found if not found
      */
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Post> getPostById(@PathVariable Long id) {
-        Post post = postService.getPostById(id);
-        if (post != null) {
-            return ResponseEntity.ok(post);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public CompletableFuture<ResponseEntity<Post>> getPostById(@PathVariable Long id,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return postService.getPostByIdAsync(id).thenApply(post -> {
+            if (post != null) {
+                return ETags.conditional(ifNoneMatch, ETags.of(post), post);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        });
     }
 
     /**
@@ -69,13 +189,29 @@ public class PostController {
      */
     @PostMapping
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<Post> createPost(@RequestBody Post post) {
-        Post createdPost = postService.createPost(post);
-        if (createdPost != null) {
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
-        } else {
-            return ResponseEntity.badRequest().build();
-        }
+    public CompletableFuture<ResponseEntity<Post>> createPost(@RequestBody Post post) {
+        return postService.createPostAsync(post).thenApply(createdPost -> {
+            if (createdPost != null) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+
+    /**
+     * Creates, updates and deletes many posts in one request.
+     * The operations run against the upstream in parallel; each gets the status the equivalent
+     * single-item request would have returned.
+     * Accessible only by users with ADMIN role.
+     *
+     * @param operations the operations to execute
+     * @return one result per operation in request order, or a 400 Bad Request if the batch is empty or too large
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public CompletableFuture<ResponseEntity<List<PostBatchResult>>> executeBatch(@RequestBody List<PostBatchOperation> operations) {
+        return postBatchService.execute(operations).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -88,13 +224,14 @@ public class PostController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<Post> updatePost(@PathVariable Long id, @RequestBody Post post) {
-        Post updatedPost = postService.updatePost(id, post);
-        if (updatedPost != null) {
-            return ResponseEntity.ok(updatedPost);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public CompletableFuture<ResponseEntity<Post>> updatePost(@PathVariable Long id, @RequestBody Post post) {
+        return postService.updatePostAsync(id, post).thenApply(updatedPost -> {
+            if (updatedPost != null) {
+                return ResponseEntity.ok(updatedPost);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        });
     }
 
     /**
@@ -106,12 +243,24 @@ public class PostController {
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<Void> deletePost(@PathVariable Long id) {
-        boolean deleted = postService.deletePost(id);
-        if (deleted) {
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public CompletableFuture<ResponseEntity<Void>> deletePost(@PathVariable Long id) {
+        return postService.deletePostAsync(id).thenApply(deleted -> {
+            if (deleted) {
+                return ResponseEntity.noContent().<Void>build();
+            } else {
+                return ResponseEntity.notFound().<Void>build();
+            }
+        });
+    }
+
+    /**
+     * Builds the response for a list of posts, honouring If-None-Match.
+     *
+     * @param ifNoneMatch the If-None-Match request header, or null
+     * @param posts the posts to return
+     * @return a 200 OK with an ETag, or a 304 Not Modified
+     */
+    static ResponseEntity<List<Post>> listResponse(String ifNoneMatch, List<Post> posts) {
+        return ETags.conditional(ifNoneMatch, ETags.of(posts), posts);
     }
-}
\ No newline at end of file
+}
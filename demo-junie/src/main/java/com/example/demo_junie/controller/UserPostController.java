@@ -0,0 +1,57 @@
+package com.example.demo_junie.controller;
+
+import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
+import com.example.demo_junie.service.PostService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST controller for handling requests about the posts of a user.
+ * Once the local post store is loaded these are answered from memory through its userId index.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserPostController {
+
+    private final PostService postService;
+
+    /**
+     * Constructor for UserPostController.
+     *
+     * @param postService the service to use for post operations
+     */
+    @Autowired
+    public UserPostController(PostService postService) {
+        this.postService = postService;
+    }
+
+    /**
+     * Retrieves the posts written by a user, optionally paged and reduced to a sparse fieldset.
+     * Accessible by any authenticated user.
+     *
+     * @param id the ID of the user
+     * @param page the 1-based page number
+     * @param size the page size, at most {@value PostQuery#MAX_PAGE_SIZE}
+     * @param fields a comma-separated list of fields to return, e.g. {@code id,title}
+     * @param ifNoneMatch the entity tags of the representations the client already holds
+     * @return a list of the user's posts, a 304 Not Modified if the client's copy is current,
+     *         or a 400 Bad Request if a parameter is invalid
+     */
+    @GetMapping("/{id}/posts")
+    @PreAuthorize("isAuthenticated()")
+    public CompletableFuture<ResponseEntity<List<Post>>> getPostsByUser(@PathVariable Long id,
+                                                                        @RequestParam(required = false) Integer page,
+                                                                        @RequestParam(required = false) Integer size,
+                                                                        @RequestParam(required = false) String fields,
+                                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostQuery query = new PostQuery(page, size, id, fields);
+        return postService.findPostsAsync(query).thenApply(posts -> PostController.listResponse(ifNoneMatch, posts));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo_junie.dto;
+
+import com.example.demo_junie.model.Post;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Data Transfer Object for one operation of a post batch request.
+ * {@code create} needs a post, {@code update} an ID and a post, {@code delete} an ID.
+ */
+public class PostBatchOperation {
+
+    /**
+     * The kind of change an operation makes.
+     */
+    public enum Type {
+        @JsonProperty("create") CREATE,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("delete") DELETE
+    }
+
+    private Type op;
+    private Long id;
+    private Post post;
+
+    // Default constructor
+    public PostBatchOperation() {
+    }
+
+    // Constructor with all fields
+    public PostBatchOperation(Type op, Long id, Post post) {
+        this.op = op;
+        this.id = id;
+        this.post = post;
+    }
+
+    // Getters and setters
+    public Type getOp() {
+        return op;
+    }
+
+    public void setOp(Type op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo_junie.dto;
+
+import com.example.demo_junie.model.Post;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Data Transfer Object for the outcome of one operation of a post batch request.
+ * The status is the HTTP status the equivalent single-item request would have returned.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostBatchResult {
+
+    private int index;
+    private int status;
+    private Post post;
+    private String error;
+
+    // Default constructor
+    public PostBatchResult() {
+    }
+
+    // Constructor with all fields
+    public PostBatchResult(int index, int status, Post post, String error) {
+        this.index = index;
+        this.status = status;
+        this.post = post;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo_junie.model;
+
+/**
+ * 64-bit FNV-1a hashing helpers used to derive entity tags from model content.
+ * Fast, allocation-free and stable across JVM runs, unlike {@link Object#hashCode()} of the content.
+ */
+public final class ContentHash {
+
+    public static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    // Mixed in for null values, so that null and "" hash differently
+    private static final long NULL_MARKER = 0x9e3779b97f4a7c15L;
+
+    private ContentHash() {
+    }
+
+    /**
+     * Mixes a long value into a hash.
+     *
+     * @param hash the hash so far
+     * @param value the value to mix in
+     * @return the new hash
+     */
+    public static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes a possibly null Long into a hash.
+     *
+     * @param hash the hash so far
+     * @param value the value to mix in
+     * @return the new hash
+     */
+    public static long mix(long hash, Long value) {
+        return value == null ? mix(hash, NULL_MARKER) : mix(hash, value.longValue());
+    }
+
+    /**
+     * Mixes a possibly null string into a hash, one UTF-16 code unit at a time, followed by its length.
+     *
+     * @param hash the hash so far
+     * @param value the value to mix in
+     * @return the new hash
+     */
+    public static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, NULL_MARKER);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash ^= c & 0xff;
+            hash *= PRIME;
+            hash ^= c >>> 8;
+            hash *= PRIME;
+        }
+        return mix(hash, value.length());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo_junie.model;
+
+/**
+ * Thrown when the parameters of a request for posts are invalid: a query, a lookup by IDs,
+ * a search or a batch. Its message describes the invalid parameter and is safe to show to clients.
+ */
+public class InvalidPostQueryException extends IllegalArgumentException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the description of the invalid parameter
+     */
+    public InvalidPostQueryException(String message) {
+        super(message);
+    }
+}
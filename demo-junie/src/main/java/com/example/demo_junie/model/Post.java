@@ -1,16 +1,26 @@
 package com.example.demo_junie.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.util.Objects;
 
 /**
  * Model class representing a post from JSONPlaceholder API.
+ * Null fields are written as null; only projections ({@link PostQuery#project(Post)}) omit them, see {@link PostSerializer}.
+ * A hash of the content is computed on first use and kept on the instance, so cached posts
+ * are hashed once; every setter discards it.
  */
+@JsonSerialize(using = PostSerializer.class)
 public class Post {
     private Long id;
     private Long userId;
     private String title;
     private String body;
 
+    // Cached content hash, null until computed; an immutable Long can be published without locking
+    private Long contentHash;
+
     // Default constructor
     public Post() {
     }
@@ -30,6 +40,7 @@ public class Post {
 
     public void setId(Long id) {
         this.id = id;
+        this.contentHash = null;
     }
 
     public Long getUserId() {
@@ -38,6 +49,7 @@ public class Post {
 
     public void setUserId(Long userId) {
         this.userId = userId;
+        this.contentHash = null;
     }
 
     public String getTitle() {
@@ -46,6 +58,7 @@ public class Post {
 
     public void setTitle(String title) {
         this.title = title;
+        this.contentHash = null;
     }
 
     public String getBody() {
@@ -54,13 +67,34 @@ public class Post {
 
     public void setBody(String body) {
         this.body = body;
+        this.contentHash = null;
+    }
+
+    /**
+     * Returns a 64-bit hash of the post's content, used to derive its entity tag.
+     *
+     * @return the content hash
+     */
+    @JsonIgnore
+    public long getContentHash() {
+        Long hash = contentHash;
+        if (hash == null) {
+            long h = ContentHash.OFFSET_BASIS;
+            h = ContentHash.mix(h, id);
+            h = ContentHash.mix(h, userId);
+            h = ContentHash.mix(h, title);
+            h = ContentHash.mix(h, body);
+            hash = h;
+            contentHash = hash;
+        }
+        return hash;
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Post post = (Post) o;
+        // A projection is equal to a post with the same field values
+        if (!(o instanceof Post post)) return false;
         return Objects.equals(id, post.id) &&
                 Objects.equals(userId, post.userId) &&
                 Objects.equals(title, post.title) &&
@@ -0,0 +1,169 @@
+package com.example.demo_junie.model;
+
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Query over the post collection: an optional author filter, an optional page and an optional
+ * sparse fieldset. Pages are 1-based; a query without a page returns every matching post.
+ */
+public class PostQuery {
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_USER_ID = "userId";
+    public static final String FIELD_TITLE = "title";
+    public static final String FIELD_BODY = "body";
+
+    private static final Set<String> ALL_FIELDS = Set.of(FIELD_ID, FIELD_USER_ID, FIELD_TITLE, FIELD_BODY);
+
+    private final Integer page;
+    private final int size;
+    private final Long userId;
+    private final Set<String> fields;
+
+    /**
+     * Constructor for PostQuery.
+     *
+     * @param page the 1-based page number, or null for no paging
+     * @param size the page size, or null for the default; setting a size without a page selects the first page
+     * @param userId the author to filter by, or null for all authors
+     * @param fields a comma-separated list of fields to return, or null for all fields
+     * @throws InvalidPostQueryException if a parameter is out of range or names an unknown field
+     */
+    public PostQuery(Integer page, Integer size, Long userId, String fields) {
+        if (page != null && page < 1) {
+            throw new InvalidPostQueryException("page must be at least 1");
+        }
+        if (size != null && (size < 1 || size > MAX_PAGE_SIZE)) {
+            throw new InvalidPostQueryException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        this.page = page != null ? page : (size != null ? Integer.valueOf(1) : null);
+        this.size = size != null ? size : DEFAULT_PAGE_SIZE;
+        this.userId = userId;
+        this.fields = parseFields(fields);
+    }
+
+    public boolean isPaged() {
+        return page != null;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Returns the requested fields.
+     *
+     * @return the requested fields, or null if all fields are requested
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Checks whether a post passes the query's filter.
+     *
+     * @param post the post to check
+     * @return true if the post matches
+     */
+    public boolean matches(Post post) {
+        return userId == null || userId.equals(post.getUserId());
+    }
+
+    /**
+     * Evaluates the query against an in-memory list: filters, pages and projects it.
+     *
+     * @param posts all posts
+     * @return the matching posts on the requested page, reduced to the requested fields
+     */
+    public List<Post> apply(List<Post> posts) {
+        long skip = isPaged() ? (long) (page - 1) * size : 0;
+        int limit = isPaged() ? size : Integer.MAX_VALUE;
+
+        List<Post> result = new ArrayList<>(Math.min(limit, posts.size()));
+        for (Post post : posts) {
+            if (!matches(post)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(project(post));
+        }
+        return result;
+    }
+
+    /**
+     * Reduces a post to the requested fields; fields that were not requested are left null
+     * and are omitted from the JSON representation.
+     *
+     * @param post the post to project
+     * @return the post itself if all fields are requested, otherwise a reduced copy
+     */
+    public Post project(Post post) {
+        if (fields == null || post == null) {
+            return post;
+        }
+        return new ProjectedPost(
+                fields.contains(FIELD_ID) ? post.getId() : null,
+                fields.contains(FIELD_USER_ID) ? post.getUserId() : null,
+                fields.contains(FIELD_TITLE) ? post.getTitle() : null,
+                fields.contains(FIELD_BODY) ? post.getBody() : null
+        );
+    }
+
+    /**
+     * Translates the filter and page into JSONPlaceholder (json-server) query parameters,
+     * so the upstream returns only the requested slice. Projection has no upstream equivalent.
+     *
+     * @return the upstream query parameters
+     */
+    public MultiValueMap<String, String> toUpstreamParams() {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        if (userId != null) {
+            params.add("userId", userId.toString());
+        }
+        if (isPaged()) {
+            params.add("_page", page.toString());
+            params.add("_limit", Integer.toString(size));
+        }
+        return params;
+    }
+
+    private static Set<String> parseFields(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return null;
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : StringUtils.commaDelimitedListToStringArray(fields)) {
+            String trimmed = field.trim();
+            if (!ALL_FIELDS.contains(trimmed)) {
+                throw new InvalidPostQueryException("unknown field '" + trimmed + "'");
+            }
+            parsed.add(trimmed);
+        }
+        return parsed.size() == ALL_FIELDS.size() ? null : Collections.unmodifiableSet(parsed);
+    }
+}
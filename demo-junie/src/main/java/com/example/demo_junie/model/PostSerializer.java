@@ -0,0 +1,45 @@
+package com.example.demo_junie.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes posts as JSON. A full post is written with all its fields, null ones included; a projection
+ * ({@link ProjectedPost}) with its non-null fields only.
+ * The decision is made per instance, because Spring writes lists with the serializer of the declared
+ * element type, which would ignore an inclusion annotation on the subclass.
+ */
+class PostSerializer extends StdSerializer<Post> {
+
+    public PostSerializer() {
+        super(Post.class);
+    }
+
+    @Override
+    public void serialize(Post post, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        boolean omitNulls = post instanceof ProjectedPost;
+        generator.writeStartObject(post);
+        writeNumber(generator, PostQuery.FIELD_ID, post.getId(), omitNulls);
+        writeNumber(generator, PostQuery.FIELD_USER_ID, post.getUserId(), omitNulls);
+        writeString(generator, PostQuery.FIELD_TITLE, post.getTitle(), omitNulls);
+        writeString(generator, PostQuery.FIELD_BODY, post.getBody(), omitNulls);
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Long value, boolean omitNull) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        } else if (!omitNull) {
+            generator.writeNullField(name);
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, String name, String value, boolean omitNull) throws IOException {
+        if (value != null || !omitNull) {
+            generator.writeStringField(name, value);
+        }
+    }
+}
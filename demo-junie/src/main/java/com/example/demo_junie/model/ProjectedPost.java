@@ -0,0 +1,13 @@
+package com.example.demo_junie.model;
+
+/**
+ * A post reduced to a sparse fieldset by {@link PostQuery#project(Post)}.
+ * The fields that were not requested are null and, unlike on a full post, are omitted from JSON
+ * (see {@link PostSerializer}).
+ */
+final class ProjectedPost extends Post {
+
+    ProjectedPost(Long id, Long userId, String title, String body) {
+        super(id, userId, title, body);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo_junie.repository;
+
+import com.example.demo_junie.model.User;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory store for users.
+ * Users are indexed by username and by email, so all lookups are O(1), and new users are
+ * inserted with an atomic check-and-insert that keeps both fields unique under concurrent sign-ups.
+ *
+ * Note: In a real application, this would be backed by a database.
+ */
+@Repository
+public class UserRepository {
+
+    private final ConcurrentMap<String, User> usersByUsername = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong idSequence = new AtomicLong();
+
+    /**
+     * Finds a user by username.
+     *
+     * @param username the username to look up
+     * @return the user, or null if not found
+     */
+    public User findByUsername(String username) {
+        return usersByUsername.get(username);
+    }
+
+    /**
+     * Checks if a username already exists.
+     *
+     * @param username the username to check
+     * @return true if the username exists, false otherwise
+     */
+    public boolean existsByUsername(String username) {
+        return usersByUsername.containsKey(username);
+    }
+
+    /**
+     * Checks if an email already exists.
+     *
+     * @param email the email to check
+     * @return true if the email exists, false otherwise
+     */
+    public boolean existsByEmail(String email) {
+        return usersByEmail.containsKey(email);
+    }
+
+    /**
+     * Inserts a user unless its username or email is already taken.
+     * A new ID is assigned if the user does not have one, but only once both are reserved, so a rejected
+     * user is left unchanged and does not use up an ID.
+     *
+     * @param user the user to insert
+     * @return true if the user was inserted, false if the username or email is already taken
+     */
+    public boolean insertIfAbsent(User user) {
+        // Reserve the email first, then claim the username; release the email if the username is taken
+        if (usersByEmail.putIfAbsent(user.getEmail(), user) != null) {
+            return false;
+        }
+        // The ID is assigned while claiming the username, so lookups by username never see the user without one
+        User claimed = usersByUsername.computeIfAbsent(user.getUsername(), username -> {
+            assignId(user);
+            return user;
+        });
+        if (claimed != user) {
+            usersByEmail.remove(user.getEmail(), user);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the number of stored users.
+     *
+     * @return the number of users
+     */
+    public int count() {
+        return usersByUsername.size();
+    }
+
+    /**
+     * Assigns the next ID to a user without one, or advances the sequence past an existing ID.
+     *
+     * @param user the user
+     */
+    private void assignId(User user) {
+        if (user.getId() == null) {
+            user.setId(idSequence.incrementAndGet());
+        } else {
+            idSequence.accumulateAndGet(user.getId(), Math::max);
+        }
+    }
+}
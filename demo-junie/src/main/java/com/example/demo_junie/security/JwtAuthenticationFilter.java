@@ -1,5 +1,6 @@
 package com.example.demo_junie.security;
 
+import com.example.demo_junie.security.service.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,10 +8,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -21,17 +22,31 @@ import java.io.IOException;
 /**
  * Filter for JWT authentication.
  * Intercepts requests, extracts and validates JWT tokens, and sets the authentication in the security context.
+ * It runs as part of the security filter chain only; {@link WebSecurityConfig} disables its registration
+ * as a servlet filter, which would otherwise authenticate every request a second time.
+ * Requests to public paths are passed through without looking at their token.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    // Stateless, so one instance serves all requests
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     @Autowired
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserDetailsServiceImpl userDetailsService;
+
+    // Build the principal from the token's claims instead of loading the user from the store
+    @Value("${security.jwt.stateless:true}")
+    private boolean stateless;
+
+    // In stateless mode, still reject tokens of users that were removed or disabled
+    @Value("${security.jwt.revocation-check:false}")
+    private boolean revocationCheck;
 
     /**
      * Filters incoming requests, extracts and validates JWT tokens, and sets the authentication in the security context.
@@ -46,16 +61,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+            String headerAuth = request.getHeader(JwtConstants.HEADER_STRING);
+            JwtUtils.VerifiedToken token = hasBearerToken(headerAuth) ? jwtUtils.parseBearerToken(headerAuth) : null;
+            if (token != null) {
+                UserDetails userDetails = loadUserDetails(token);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
@@ -65,18 +81,67 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Extracts the JWT token from the Authorization header.
+     * Skips token processing on {@link PublicPaths public paths}: they are permitted without
+     * authentication, so a token sent along with them would be verified for nothing.
      *
      * @param request the HTTP request
-     * @return the JWT token, or null if not found
+     * @return true if the request path is public
      */
-    private String parseJwt(HttpServletRequest request) {
-        String headerAuth = request.getHeader(JwtConstants.HEADER_STRING);
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (!contextPath.isEmpty() && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        return PublicPaths.matches(path);
+    }
 
-        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith(JwtConstants.TOKEN_PREFIX)) {
-            return headerAuth.substring(JwtConstants.TOKEN_PREFIX.length());
+    /**
+     * Also authenticates the async dispatch that writes the result of a CompletableFuture handler;
+     * the security context of the original dispatch is not carried over to it.
+     * The verified claims are cached, so the second pass is cheap.
+     *
+     * @return false, so async dispatches are filtered as well
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * Resolves the user for a verified token.
+     * In stateless mode the principal built from the token's claims is used; tokens issued without
+     * embedded roles fall back to the user store.
+     *
+     * @param token the verified token
+     * @return the user details, or null if the token has been revoked
+     */
+    private UserDetails loadUserDetails(JwtUtils.VerifiedToken token) {
+        String username = token.getClaims().getSubject();
+
+        if (stateless) {
+            UserDetails userDetails = token.getUserDetails();
+            if (userDetails != null) {
+                if (revocationCheck && !userDetailsService.isActive(username)) {
+                    logger.warn("Rejected revoked JWT token for user: {}", username);
+                    return null;
+                }
+                return userDetails;
+            }
         }
 
-        return null;
+        return userDetailsService.loadUserByUsername(username);
+    }
+
+    /**
+     * Checks whether an Authorization header value carries a bearer token.
+     * The token is extracted by {@link JwtUtils#parseBearerToken(String)}.
+     *
+     * @param headerAuth the Authorization header value, or null
+     * @return true if the header has the bearer prefix
+     */
+    private static boolean hasBearerToken(String headerAuth) {
+        return StringUtils.hasText(headerAuth) && headerAuth.startsWith(JwtConstants.TOKEN_PREFIX);
     }
 }
\ No newline at end of file
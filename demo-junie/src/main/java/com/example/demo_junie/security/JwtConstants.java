@@ -11,6 +11,23 @@ public class JwtConstants {
     // Token expiration time in milliseconds (24 hours)
     public static final long JWT_EXPIRATION_MS = 86400000;
     
+    // Maximum number of verified tokens whose claims are kept in memory
+    public static final long CLAIMS_CACHE_MAX_SIZE = 10000;
+    
+    // Maximum number of rejected tokens remembered, so a client retrying a bad token is not re-verified
+    public static final long REJECTED_CACHE_MAX_SIZE = 10000;
+    
+    // Time a rejected token is remembered; long enough to absorb a retrying client
+    public static final long REJECTED_CACHE_TTL_MS = 60000;
+    
+    // Rejected tokens are logged at most once per reason in this interval
+    public static final long REJECTION_LOG_INTERVAL_MS = 10000;
+    
+    // Claim names for the user data embedded in the token
+    public static final String CLAIM_USER_ID = "id";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_ROLES = "roles";
+    
     // Token prefix in Authorization header
     public static final String TOKEN_PREFIX = "Bearer ";
     
@@ -1,25 +1,118 @@
 package com.example.demo_junie.security;
 
+import com.example.demo_junie.model.Role;
+import com.example.demo_junie.security.service.UserDetailsImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for JWT token operations.
+ * Token validations are recorded by the {@code security.jwt.validations} timer, tagged with the result
+ * ({@code valid} or the reason the token was rejected) and whether the result came from the cache.
  */
 @Component
 public class JwtUtils {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
-    
+
+    // Authorities are immutable, so one instance per role is shared by all principals
+    private static final Map<String, GrantedAuthority> ROLE_AUTHORITIES = Arrays.stream(Role.values())
+            .collect(Collectors.toUnmodifiableMap(Role::name, role -> new SimpleGrantedAuthority(role.name())));
+
+    private static final long REJECTION_LOG_INTERVAL_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(JwtConstants.REJECTION_LOG_INTERVAL_MS);
+
+    // The key and parser are immutable and thread-safe, so they are built once
+    private final Key signingKey = Keys.hmacShaKeyFor(JwtConstants.JWT_SECRET.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+    // Verified tokens by token string; an entry expires together with its token
+    private final Cache<String, VerifiedToken> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(JwtConstants.CLAIMS_CACHE_MAX_SIZE)
+            .expireAfter(new VerifiedTokenExpiry())
+            .build();
+
+    // A token rejected for a permanent reason stays rejected, so the reason is remembered for a while
+    // instead of verifying it again
+    private final Cache<String, Rejection> rejectedTokens = Caffeine.newBuilder()
+            .maximumSize(JwtConstants.REJECTED_CACHE_MAX_SIZE)
+            .expireAfterWrite(JwtConstants.REJECTED_CACHE_TTL_MS, TimeUnit.MILLISECONDS)
+            .build();
+
+    // Registered once, so recording a validation needs no meter lookup
+    private final Timer validCached;
+    private final Timer validVerified;
+    private final Map<Rejection, Timer> rejectedCached = new EnumMap<>(Rejection.class);
+    private final Map<Rejection, Timer> rejectedVerified = new EnumMap<>(Rejection.class);
+
+    // Earliest time the next rejection of each reason is logged
+    private final Map<Rejection, AtomicLong> nextRejectionLog = new EnumMap<>(Rejection.class);
+
+    /**
+     * Why a token was rejected.
+     */
+    private enum Rejection {
+        MALFORMED("Invalid JWT token"),
+        EXPIRED("JWT token is expired"),
+        UNSUPPORTED("JWT token is unsupported"),
+        MISSING("JWT claims string is empty"),
+        INVALID("JWT token validation error");
+
+        private final String message;
+
+        Rejection(String message) {
+            this.message = message;
+        }
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Constructor for JwtUtils.
+     *
+     * @param meterRegistry the registry used to publish validation metrics
+     */
+    @Autowired
+    public JwtUtils(MeterRegistry meterRegistry) {
+        this.validCached = validationTimer(meterRegistry, "valid", "hit");
+        this.validVerified = validationTimer(meterRegistry, "valid", "miss");
+        for (Rejection rejection : Rejection.values()) {
+            rejectedCached.put(rejection, validationTimer(meterRegistry, rejection.tag(), "hit"));
+            rejectedVerified.put(rejection, validationTimer(meterRegistry, rejection.tag(), "miss"));
+            nextRejectionLog.put(rejection, new AtomicLong(System.nanoTime()));
+        }
+    }
+
     /**
      * Generates a JWT token for the authenticated user.
      *
@@ -28,30 +121,136 @@ public class JwtUtils {
      */
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
-        return Jwts.builder()
+
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .claim(JwtConstants.CLAIM_ROLES, userPrincipal.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList());
+        if (userPrincipal instanceof UserDetailsImpl userDetails) {
+            builder.claim(JwtConstants.CLAIM_USER_ID, userDetails.getId())
+                    .claim(JwtConstants.CLAIM_EMAIL, userDetails.getEmail());
+        }
+
+        return builder
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + JwtConstants.JWT_EXPIRATION_MS))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
-    
+
+    /**
+     * Verifies a JWT token.
+     * The signature is checked once per token; subsequent calls with the same token are served
+     * from a bounded cache until the token expires. Tokens rejected for a reason that cannot change
+     * (malformed, unsupported, expired or with a bad signature) are remembered for a short time as well, and
+     * missing or structurally malformed tokens are rejected without invoking the parser, so the
+     * common failures do not throw. Rejections are logged at most once per reason and interval.
+     *
+     * @param token the JWT token
+     * @return the verified token, or null if the token is not valid
+     */
+    public VerifiedToken parseToken(String token) {
+        long start = System.nanoTime();
+        if (token == null || token.isEmpty()) {
+            reject(Rejection.MISSING, rejectedVerified, start, null);
+            return null;
+        }
+
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified != null) {
+            validCached.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return verified;
+        }
+        Rejection rejection = rejectedTokens.getIfPresent(token);
+        if (rejection != null) {
+            reject(rejection, rejectedCached, start, null);
+            return null;
+        }
+
+        rejection = checkStructure(token);
+        if (rejection != null) {
+            reject(rejection, rejectedVerified, start, null);
+            return null;
+        }
+
+        String detail;
+        boolean permanent = true;
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            verified = new VerifiedToken(claims, getUserDetailsFromClaims(claims));
+            verifiedTokens.put(token, verified);
+            validVerified.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return verified;
+        } catch (MalformedJwtException e) {
+            rejection = Rejection.MALFORMED;
+            detail = e.getMessage();
+        } catch (ExpiredJwtException e) {
+            rejection = Rejection.EXPIRED;
+            detail = e.getMessage();
+        } catch (UnsupportedJwtException e) {
+            rejection = Rejection.UNSUPPORTED;
+            detail = e.getMessage();
+        } catch (SignatureException e) {
+            rejection = Rejection.INVALID;
+            detail = e.getMessage();
+        } catch (Exception e) {
+            // Not known to be a property of the token, so it is verified again next time
+            rejection = Rejection.INVALID;
+            detail = e.getMessage();
+            permanent = false;
+        }
+
+        if (permanent) {
+            rejectedTokens.put(token, rejection);
+        }
+        reject(rejection, rejectedVerified, start, detail);
+        return null;
+    }
+
+    /**
+     * Verifies the JWT token of an Authorization header value, like {@link #parseToken(String)}.
+     * The caches are keyed by the token, so a token is resolved from them whether it was verified
+     * from a header or on its own.
+     *
+     * @param authorizationHeader the header value, starting with {@value JwtConstants#TOKEN_PREFIX}
+     * @return the verified token, or null if the token is not valid
+     */
+    public VerifiedToken parseBearerToken(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(JwtConstants.TOKEN_PREFIX)) {
+            return parseToken(null);
+        }
+        return parseToken(authorizationHeader.substring(JwtConstants.TOKEN_PREFIX.length()));
+    }
+
+    /**
+     * Verifies a JWT token and returns its claims, like {@link #parseToken(String)}.
+     *
+     * @param token the JWT token
+     * @return the verified claims, or null if the token is not valid
+     */
+    public Claims parseClaims(String token) {
+        VerifiedToken verified = parseToken(token);
+        return verified != null ? verified.getClaims() : null;
+    }
+
     /**
      * Extracts the username from a JWT token.
      *
      * @param token the JWT token
      * @return the username extracted from the token
+     * @throws JwtException if the token is not valid
+     * @throws IllegalArgumentException if the token is null or empty
      */
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT String argument cannot be null or empty.");
+        }
+
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        return verified != null ? verified.getClaims().getSubject() : jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
-    
+
     /**
      * Validates a JWT token.
      *
@@ -59,34 +258,157 @@ public class JwtUtils {
      * @return true if the token is valid, false otherwise
      */
     public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
-        } catch (Exception e) {
-            logger.error("JWT token validation error: {}", e.getMessage());
+        return parseToken(authToken) != null;
+    }
+
+    /**
+     * Builds the user principal from the user data embedded in verified claims,
+     * so that authenticating a request does not need a user store lookup.
+     *
+     * @param claims the verified claims
+     * @return the user details, or null if the token does not carry the user's roles
+     */
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Object roles = claims.get(JwtConstants.CLAIM_ROLES);
+        if (!(roles instanceof Collection<?> roleNames)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(roleNames.size());
+        for (Object roleName : roleNames) {
+            GrantedAuthority authority = ROLE_AUTHORITIES.get(String.valueOf(roleName));
+            if (authority == null) {
+                return null;
+            }
+            authorities.add(authority);
         }
-        
-        return false;
+
+        Number id = claims.get(JwtConstants.CLAIM_USER_ID, Number.class);
+        return new UserDetailsImpl(
+                id != null ? id.longValue() : null,
+                claims.getSubject(),
+                claims.get(JwtConstants.CLAIM_EMAIL, String.class),
+                null,
+                authorities,
+                true
+        );
     }
-    
+
     /**
-     * Gets the signing key for JWT token operations.
+     * The verified claims of a token, with the principal built from them.
+     * Instances are cached and shared by all requests carrying the same token; the principal
+     * is immutable, so it is built once per token instead of once per request.
+     */
+    public static final class VerifiedToken {
+
+        private final Claims claims;
+        private final UserDetailsImpl userDetails;
+
+        private VerifiedToken(Claims claims, UserDetailsImpl userDetails) {
+            this.claims = claims;
+            this.userDetails = userDetails;
+        }
+
+        /**
+         * @return the verified claims
+         */
+        public Claims getClaims() {
+            return claims;
+        }
+
+        /**
+         * @return the principal embedded in the claims, or null if the token does not carry the user's roles
+         */
+        public UserDetailsImpl getUserDetails() {
+            return userDetails;
+        }
+    }
+
+    /**
+     * Rejects tokens that cannot be a signed JWT without parsing them: a JWS consists of three
+     * non-empty base64url parts separated by dots. A missing signature means an unsigned token.
+     *
+     * @param token the token
+     * @return the rejection, or null if the token is structurally valid
+     */
+    private static Rejection checkStructure(String token) {
+        int dots = 0;
+        int lastDot = -1;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (i == lastDot + 1) {
+                    return Rejection.MALFORMED;
+                }
+                dots++;
+                lastDot = i;
+            } else if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return Rejection.MALFORMED;
+            }
+        }
+        if (dots != 2) {
+            return Rejection.MALFORMED;
+        }
+        return lastDot == token.length() - 1 ? Rejection.UNSUPPORTED : null;
+    }
+
+    /**
+     * Records a rejection and logs it, unless a rejection with the same reason was logged recently.
      *
-     * @return the signing key
+     * @param rejection the reason
+     * @param timers the timers to record in, for cached or newly determined rejections
+     * @param start the start of the validation, from {@link System#nanoTime()}
+     * @param detail the error message of the parser, or null
      */
-    private Key getSigningKey() {
-        byte[] keyBytes = JwtConstants.JWT_SECRET.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private void reject(Rejection rejection, Map<Rejection, Timer> timers, long start, String detail) {
+        long now = System.nanoTime();
+        timers.get(rejection).record(now - start, TimeUnit.NANOSECONDS);
+
+        AtomicLong nextLog = nextRejectionLog.get(rejection);
+        long next = nextLog.get();
+        if (now - next >= 0 && nextLog.compareAndSet(next, now + REJECTION_LOG_INTERVAL_NANOS)) {
+            if (detail != null) {
+                logger.warn("{}: {} (further rejections for this reason are not logged for {} ms)",
+                        rejection.message, detail, JwtConstants.REJECTION_LOG_INTERVAL_MS);
+            } else {
+                logger.warn("{} (further rejections for this reason are not logged for {} ms)",
+                        rejection.message, JwtConstants.REJECTION_LOG_INTERVAL_MS);
+            }
+        }
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String result, String cache) {
+        return Timer.builder("security.jwt.validations")
+                .description("JWT token validations")
+                .tag("result", result)
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expires a cached entry at the expiration time of its token.
+     * The cache compares keys by the full token string, so a hash collision can never
+     * return the claims of a different token.
+     */
+    private static class VerifiedTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            Date expiration = verified.getClaims().getExpiration();
+            long remainingMs = expiration != null
+                    ? expiration.getTime() - System.currentTimeMillis()
+                    : JwtConstants.JWT_EXPIRATION_MS;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
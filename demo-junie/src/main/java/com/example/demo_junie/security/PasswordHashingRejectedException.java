@@ -0,0 +1,17 @@
+package com.example.demo_junie.security;
+
+/**
+ * Thrown when a password cannot be hashed because the hashing pool and its queue are full.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    /**
+     * Constructor with message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause
+     */
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demo_junie.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Password encoder that runs the (CPU-heavy) hashing of a delegate encoder on a dedicated, bounded pool.
+ * At most a fixed number of hashes run at once and only a limited number may wait; when the queue is full,
+ * calls fail fast with a {@link PasswordHashingRejectedException}.
+ * The {@link PasswordEncoder} methods still block their caller until the hash is done, so on their own they
+ * only bound the hashing concurrency. To release the calling thread, run the whole operation that hashes,
+ * such as a login, with {@link #supplyAsync(Supplier)}: hashing on a pool thread runs inline.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Constructor for PooledPasswordEncoder.
+     *
+     * @param delegate the encoder doing the actual hashing
+     * @param threads the number of hashing threads
+     * @param queueCapacity the maximum number of hashing requests waiting for a thread
+     * @param meterRegistry the registry used to publish hashing latency and queue depth
+     */
+    public PooledPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-") {
+                    @Override
+                    public Thread createThread(Runnable runnable) {
+                        return new HashingThread(getThreadGroup(), runnable, nextThreadName());
+                    }
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("security.password.hashing")
+                .description("Time spent hashing passwords")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("security.password.hashing")
+                .description("Time spent hashing passwords")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("security.password.hashing.wait")
+                .description("Time hashing requests and asynchronous operations waited for a thread")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("security.password.hashing.rejected")
+                .description("Hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing requests currently running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Runs an operation that hashes passwords, such as a login or a registration, on the hashing pool,
+     * so the calling thread is released instead of waiting for the hash. Hashing done by the operation
+     * runs inline on the pool thread.
+     *
+     * @param operation the operation
+     * @return a future completed with the result of the operation
+     * @throws PasswordHashingRejectedException if the pool is saturated
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> operation) {
+        long submitted = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return operation.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a hashing task on the pool and waits for its result, or runs it inline if the caller
+     * is a pool thread already.
+     *
+     * @param timer the timer recording the hashing time, without time queued
+     * @param task the hashing task
+     * @return the result of the task
+     * @throws PasswordHashingRejectedException if the pool is saturated
+     */
+    private <T> T execute(Timer timer, Supplier<T> task) {
+        if (Thread.currentThread() instanceof HashingThread) {
+            // Submitting would queue behind, or wait for, the very thread that is running this operation
+            return timer.record(task);
+        }
+
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return timer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private PasswordHashingRejectedException rejected(RejectedExecutionException e) {
+        rejectedCounter.increment();
+        return new PasswordHashingRejectedException("Password hashing capacity exhausted", e);
+    }
+
+    /**
+     * A thread of the hashing pool.
+     */
+    private static final class HashingThread extends Thread {
+
+        HashingThread(ThreadGroup group, Runnable runnable, String name) {
+            super(group, runnable, name);
+        }
+    }
+}
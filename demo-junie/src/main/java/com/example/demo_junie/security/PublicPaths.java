@@ -0,0 +1,59 @@
+package com.example.demo_junie.security;
+
+/**
+ * The paths that are accessible without authentication.
+ * The security filter chain permits them by pattern; {@link #matches(String)} checks a request path
+ * against the same patterns with prefixes computed once, so the JWT filter can skip token processing
+ * on public paths without running a pattern matcher per request.
+ * A path wrongly taken for public is only left unauthenticated, so a mismatch can deny access but never grant it.
+ */
+final class PublicPaths {
+
+    /**
+     * The patterns of the public paths; {@code /**} matches the path itself and everything below it.
+     */
+    static final String[] PATTERNS = {
+            "/api/auth/**",
+            "/api-docs/**",
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/actuator/health/**"
+    };
+
+    private static final String SUBTREE = "/**";
+
+    // Per pattern: the path itself, and whether everything below it matches too
+    private static final String[] PATHS = new String[PATTERNS.length];
+    private static final boolean[] SUBTREES = new boolean[PATTERNS.length];
+
+    static {
+        for (int i = 0; i < PATTERNS.length; i++) {
+            SUBTREES[i] = PATTERNS[i].endsWith(SUBTREE);
+            PATHS[i] = SUBTREES[i] ? PATTERNS[i].substring(0, PATTERNS[i].length() - SUBTREE.length()) : PATTERNS[i];
+        }
+    }
+
+    private PublicPaths() {
+    }
+
+    /**
+     * Checks whether a request path, relative to the context path, is public.
+     *
+     * @param path the request path
+     * @return true if one of the patterns matches the path
+     */
+    static boolean matches(String path) {
+        for (int i = 0; i < PATHS.length; i++) {
+            String publicPath = PATHS[i];
+            if (path.startsWith(publicPath)) {
+                if (path.length() == publicPath.length()) {
+                    return true;
+                }
+                if (SUBTREES[i] && path.charAt(publicPath.length()) == '/') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
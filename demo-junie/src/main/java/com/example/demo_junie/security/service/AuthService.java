@@ -3,6 +3,8 @@ package com.example.demo_junie.security.service;
 import com.example.demo_junie.model.Role;
 import com.example.demo_junie.model.User;
 import com.example.demo_junie.security.JwtUtils;
+import com.example.demo_junie.security.PasswordHashingRejectedException;
+import com.example.demo_junie.security.PooledPasswordEncoder;
 import com.example.demo_junie.security.dto.JwtResponse;
 import com.example.demo_junie.security.dto.LoginRequest;
 import com.example.demo_junie.security.dto.RegisterRequest;
@@ -10,14 +12,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for authentication operations.
+ * The asynchronous variants run on the password hashing pool, so the request thread is not held while BCrypt runs.
  */
 @Service
 public class AuthService {
@@ -29,7 +31,7 @@ public class AuthService {
     private UserDetailsServiceImpl userDetailsService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PooledPasswordEncoder passwordEncoder;
 
     @Autowired
     private JwtUtils jwtUtils;
@@ -45,9 +47,6 @@ public class AuthService {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
-        // Set the authentication in the security context
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
         // Generate a JWT token
         String jwt = jwtUtils.generateJwtToken(authentication);
 
@@ -66,6 +65,28 @@ public class AuthService {
         );
     }
 
+    /**
+     * Authenticates a user on the password hashing pool and generates a JWT token.
+     *
+     * @param loginRequest the login request
+     * @return a future completed with the JWT response
+     * @throws PasswordHashingRejectedException if the hashing pool is saturated
+     */
+    public CompletableFuture<JwtResponse> authenticateUserAsync(LoginRequest loginRequest) {
+        return passwordEncoder.supplyAsync(() -> authenticateUser(loginRequest));
+    }
+
+    /**
+     * Registers a new user on the password hashing pool.
+     *
+     * @param registerRequest the register request
+     * @return a future completed with true if the user was registered successfully, false otherwise
+     * @throws PasswordHashingRejectedException if the hashing pool is saturated
+     */
+    public CompletableFuture<Boolean> registerUserAsync(RegisterRequest registerRequest) {
+        return passwordEncoder.supplyAsync(() -> registerUser(registerRequest));
+    }
+
     /**
      * Registers a new user.
      *
@@ -73,7 +94,7 @@ public class AuthService {
      * @return true if the user was registered successfully, false otherwise
      */
     public boolean registerUser(RegisterRequest registerRequest) {
-        // Check if the username already exists
+        // Reject obvious duplicates before paying for password hashing
         if (userDetailsService.existsByUsername(registerRequest.getUsername())) {
             return false;
         }
@@ -93,9 +114,7 @@ public class AuthService {
         // Set the default role
         user.setRoles(Collections.singletonList(Role.ROLE_USER));
 
-        // Save the user
-        userDetailsService.addUser(user);
-
-        return true;
+        // Save the user; fails if a concurrent registration took the username or email meanwhile
+        return userDetailsService.addUser(user);
     }
 }
\ No newline at end of file
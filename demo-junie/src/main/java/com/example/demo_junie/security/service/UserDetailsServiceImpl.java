@@ -2,6 +2,8 @@ package com.example.demo_junie.security.service;
 
 import com.example.demo_junie.model.Role;
 import com.example.demo_junie.model.User;
+import com.example.demo_junie.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -9,25 +11,28 @@ import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Implementation of UserDetailsService for Spring Security.
  * 
  * Note: In a real application, this would load users from a database.
- * For this demo, we're using an in-memory map of users.
+ * For this demo, we're using an in-memory user repository.
  */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     
     // In-memory user store for demo purposes
-    private final Map<String, User> users = new HashMap<>();
+    private final UserRepository userRepository;
     
     /**
      * Constructor that initializes some demo users.
+     *
+     * @param userRepository the repository holding the users
      */
-    public UserDetailsServiceImpl() {
+    @Autowired
+    public UserDetailsServiceImpl(UserRepository userRepository) {
+        this.userRepository = userRepository;
+        
         // Create a demo admin user
         User adminUser = new User(
                 1L,
@@ -49,8 +54,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         );
         
         // Add users to the in-memory store
-        users.put(adminUser.getUsername(), adminUser);
-        users.put(regularUser.getUsername(), regularUser);
+        userRepository.insertIfAbsent(adminUser);
+        userRepository.insertIfAbsent(regularUser);
     }
     
     /**
@@ -62,7 +67,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = users.get(username);
+        User user = userRepository.findByUsername(username);
         if (user == null) {
             throw new UsernameNotFoundException("User not found with username: " + username);
         }
@@ -72,20 +77,13 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     
     /**
      * Adds a new user to the in-memory store.
+     * The check for an existing username or email and the insert happen atomically.
      *
      * @param user the user to add
-     * @return the added user
+     * @return true if the user was added, false if the username or email is already taken
      */
-    public User addUser(User user) {
-        // Generate a new ID if not provided
-        if (user.getId() == null) {
-            user.setId((long) (users.size() + 1));
-        }
-        
-        // Add the user to the in-memory store
-        users.put(user.getUsername(), user);
-        
-        return user;
+    public boolean addUser(User user) {
+        return userRepository.insertIfAbsent(user);
     }
     
     /**
@@ -95,7 +93,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @return true if the username exists, false otherwise
      */
     public boolean existsByUsername(String username) {
-        return users.containsKey(username);
+        return userRepository.existsByUsername(username);
+    }
+    
+    /**
+     * Checks if a user exists and is enabled, without building its UserDetails.
+     *
+     * @param username the username to check
+     * @return true if the user exists and is enabled, false otherwise
+     */
+    public boolean isActive(String username) {
+        User user = userRepository.findByUsername(username);
+        return user != null && user.isEnabled();
     }
     
     /**
@@ -105,7 +114,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @return true if the email exists, false otherwise
      */
     public boolean existsByEmail(String email) {
-        return users.values().stream()
-                .anyMatch(user -> user.getEmail().equals(email));
+        return userRepository.existsByEmail(email);
     }
 }
\ No newline at end of file
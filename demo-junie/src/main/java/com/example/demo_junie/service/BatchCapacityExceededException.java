@@ -0,0 +1,30 @@
+package com.example.demo_junie.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a batch or ID lookup is not admitted, because the operations already pending leave
+ * no room for all of its operations. None of its operations has run and no upstream call was made.
+ */
+public class BatchCapacityExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructor with message and retry hint.
+     *
+     * @param message the detail message
+     * @param retryAfter how long the caller should wait before retrying
+     */
+    public BatchCapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return how long the caller should wait before retrying
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,416 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caching decorator for the PostService.
+ * Serves reads from a size-bounded, TTL-based in-memory cache (W-TinyLFU eviction) and
+ * invalidates affected entries when posts are created, updated or deleted.
+ * Cache misses are loaded through the delegate's asynchronous methods, so a non-blocking
+ * delegate is never blocked on; concurrent misses for the same key share one load.
+ * With a max-staleness greater than zero, entries older than the TTL are served stale while they
+ * are reloaded in the background, so the reader of a stale entry never waits
+ * for the upstream, even with a blocking delegate (stale-while-revalidate); a failed reload keeps the stale entry
+ * (stale-if-error) until it is older than the TTL plus the max-staleness.
+ * Loads and reloads run on a dedicated, bounded pool, so blocking upstream calls never occupy shared pools;
+ * a load the pool has no room for fails with an {@link UpstreamUnavailableException} without calling the upstream.
+ * Queries are answered from the {@link PostStore} once it is loaded, and writes go through to it.
+ * When a read cannot be served by the upstream (for example while the {@link UpstreamGuard} circuit is open,
+ * which rejects the load at once), the post store's copy is served instead; if the store is not loaded yet,
+ * the {@link UpstreamUnavailableException} is passed on to the caller.
+ */
+@Service
+@Primary
+public class CachingPostService implements PostService, DisposableBean {
+
+    private static final String ALL_POSTS_KEY = "all";
+
+    private static final Duration LOAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final PostService delegate;
+    private final PostStore postStore;
+    private final Executor executor;
+    private final AsyncLoadingCache<Long, Post> postCache;
+    private final AsyncLoadingCache<String, List<Post>> allPostsCache;
+
+    /**
+     * Constructor for CachingPostService.
+     *
+     * @param delegate the PostService that talks to the upstream API
+     * @param postStore the local post store used to answer queries
+     * @param meterRegistry the registry used to publish hit/miss/eviction counters
+     * @param ttl how long an entry is served fresh after it was loaded
+     * @param maxStaleness how much longer a stale entry may be served while it is reloaded; zero disables stale serving
+     * @param maxSize the maximum number of posts kept in the cache
+     * @param loadThreads the number of threads loading and reloading entries from the upstream
+     * @param loadQueueCapacity the maximum number of loads waiting for a thread
+     */
+    @Autowired
+    public CachingPostService(@Qualifier("upstream") PostService delegate,
+                              PostStore postStore,
+                              MeterRegistry meterRegistry,
+                              @Value("${posts.cache.ttl:60s}") Duration ttl,
+                              @Value("${posts.cache.max-staleness:5m}") Duration maxStaleness,
+                              @Value("${posts.cache.max-size:1000}") long maxSize,
+                              @Value("${posts.cache.load-threads:20}") int loadThreads,
+                              @Value("${posts.cache.load-queue-capacity:100}") int loadQueueCapacity) {
+        this(delegate, postStore, meterRegistry, ttl, maxStaleness, maxSize, Ticker.systemTicker(),
+                loadExecutor(loadThreads, loadQueueCapacity));
+    }
+
+    /**
+     * Constructor for CachingPostService with an explicit time source and load executor, for tests.
+     */
+    CachingPostService(PostService delegate,
+                       PostStore postStore,
+                       MeterRegistry meterRegistry,
+                       Duration ttl,
+                       Duration maxStaleness,
+                       long maxSize,
+                       Ticker ticker,
+                       Executor executor) {
+        this.delegate = delegate;
+        this.postStore = postStore;
+        this.executor = executor;
+        this.postCache = cacheBuilder(ttl, maxStaleness, ticker)
+                .maximumSize(maxSize)
+                .buildAsync(new StaleIfErrorLoader<>(delegate::getPostByIdAsync, executor));
+        this.allPostsCache = cacheBuilder(ttl, maxStaleness, ticker)
+                .maximumSize(1)
+                .buildAsync(new StaleIfErrorLoader<>(
+                        key -> delegate.getAllPostsAsync().thenApply(this::cacheablePosts), executor));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, postCache, "posts");
+        CaffeineCacheMetrics.monitor(meterRegistry, allPostsCache, "posts.all");
+    }
+
+    @Override
+    public List<Post> getAllPosts() {
+        return join(getAllPostsAsync());
+    }
+
+    @Override
+    public Post getPostById(Long id) {
+        return join(getPostByIdAsync(id));
+    }
+
+    @Override
+    public Post createPost(Post post) {
+        return join(createPostAsync(post));
+    }
+
+    @Override
+    public Post updatePost(Long id, Post post) {
+        return join(updatePostAsync(id, post));
+    }
+
+    @Override
+    public boolean deletePost(Long id) {
+        return join(deletePostAsync(id));
+    }
+
+    /**
+     * Iterates the cached list or the post store when either is loaded; otherwise streams from the delegate
+     * without populating the cache, so a cold stream never materializes the full list.
+     */
+    @Override
+    public void forEachPost(Consumer<Post> consumer) {
+        List<Post> cached = loadedPosts();
+        if (cached != null) {
+            cached.forEach(consumer);
+        } else if (postStore.isLoaded()) {
+            postStore.findAll().forEach(consumer);
+        } else {
+            delegate.forEachPost(consumer);
+        }
+    }
+
+    @Override
+    public List<Post> findPosts(PostQuery query) {
+        return join(findPostsAsync(query));
+    }
+
+    /**
+     * Evaluates the query in memory against the post store, or against the cached list when the store
+     * is not loaded yet; otherwise the query goes to the delegate, which asks the upstream for just the
+     * requested slice. Slices are not cached.
+     */
+    @Override
+    public CompletableFuture<List<Post>> findPostsAsync(PostQuery query) {
+        if (postStore.isLoaded()) {
+            return CompletableFuture.completedFuture(postStore.find(query));
+        }
+        List<Post> cached = loadedPosts();
+        if (cached != null) {
+            return CompletableFuture.completedFuture(query.apply(cached));
+        }
+        return delegate.findPostsAsync(query);
+    }
+
+    /**
+     * Searches the post store's index once the store is loaded; before that, the cached list is indexed per call.
+     */
+    @Override
+    public List<Post> searchPosts(String text, int limit) {
+        if (postStore.isLoaded()) {
+            return postStore.search(text, limit);
+        }
+        return PostService.super.searchPosts(text, limit);
+    }
+
+    @Override
+    public CompletableFuture<List<Post>> getAllPostsAsync() {
+        return allPostsCache.get(ALL_POSTS_KEY)
+                .exceptionally(e -> readStore(e, postStore::findAll))
+                .thenApply(posts -> {
+                    if (posts != null) {
+                        return posts;
+                    }
+                    return postStore.isLoaded() ? postStore.findAll() : Collections.emptyList();
+                });
+    }
+
+    /**
+     * A post the upstream did not return is looked up in the post store, which has the posts
+     * the upstream served at the last refresh and every write made through this service since.
+     */
+    @Override
+    public CompletableFuture<Post> getPostByIdAsync(Long id) {
+        return postCache.get(id)
+                .exceptionally(e -> readStore(e, () -> postStore.findById(id)))
+                .thenApply(post -> post != null || !postStore.isLoaded() ? post : postStore.findById(id));
+    }
+
+    @Override
+    public CompletableFuture<Post> createPostAsync(Post post) {
+        return delegate.createPostAsync(post).thenApply(createdPost -> {
+            if (createdPost != null) {
+                postStore.put(createdPost);
+                allPostsCache.synchronous().invalidateAll();
+            }
+            return createdPost;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Post> updatePostAsync(Long id, Post post) {
+        return delegate.updatePostAsync(id, post).thenApply(updatedPost -> {
+            if (updatedPost != null) {
+                postCache.put(id, CompletableFuture.completedFuture(updatedPost));
+                postStore.put(updatedPost);
+                allPostsCache.synchronous().invalidateAll();
+            }
+            return updatedPost;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deletePostAsync(Long id) {
+        return delegate.deletePostAsync(id).thenApply(deleted -> {
+            if (deleted) {
+                postCache.synchronous().invalidate(id);
+                postStore.remove(id);
+                allPostsCache.synchronous().invalidateAll();
+            }
+            return deleted;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the pool that loads and reloads cache entries from the upstream.
+     *
+     * @param threads the number of threads
+     * @param queueCapacity the maximum number of loads waiting for a thread
+     * @return the pool, which rejects loads when its queue is full
+     */
+    static ThreadPoolExecutor loadExecutor(int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("post-cache-load-"));
+    }
+
+    /**
+     * Creates a cache builder for the given freshness and staleness bounds.
+     *
+     * @param ttl how long an entry is served fresh
+     * @param maxStaleness how much longer a stale entry may be served while it is reloaded
+     * @param ticker the time source
+     * @return the cache builder
+     */
+    private static Caffeine<Object, Object> cacheBuilder(Duration ttl, Duration maxStaleness, Ticker ticker) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .ticker(ticker)
+                .recordStats();
+        if (maxStaleness.isZero() || maxStaleness.isNegative()) {
+            return builder.expireAfterWrite(ttl);
+        }
+        return builder
+                .refreshAfterWrite(ttl)
+                .expireAfterWrite(ttl.plus(maxStaleness));
+    }
+
+    /**
+     * Seeds the post list cache and the per-post cache with posts loaded elsewhere, e.g. at startup.
+     *
+     * @param posts all posts; an empty list is ignored
+     */
+    public void warmUp(List<Post> posts) {
+        List<Post> cacheable = cacheablePosts(posts);
+        if (cacheable != null) {
+            allPostsCache.put(ALL_POSTS_KEY, CompletableFuture.completedFuture(cacheable));
+        }
+    }
+
+    /**
+     * Answers a read from the post store after the upstream read failed, or passes the failure on
+     * if the store is not loaded.
+     *
+     * @param error the failure of the upstream read
+     * @param read the read to make against the store
+     * @return the store's answer
+     */
+    private <T> T readStore(Throwable error, Supplier<T> read) {
+        if (postStore.isLoaded()) {
+            return read.get();
+        }
+        throw error instanceof CompletionException completionException ? completionException : new CompletionException(error);
+    }
+
+    /**
+     * Waits for a future and rethrows its failure unwrapped, so synchronous callers see the same
+     * exceptions as with a blocking delegate.
+     *
+     * @param future the future to wait for
+     * @return the result of the future
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached list of all posts if it has finished loading, without triggering a load.
+     *
+     * @return the cached posts, or null if they are not loaded
+     */
+    private List<Post> loadedPosts() {
+        CompletableFuture<List<Post>> cached = allPostsCache.getIfPresent(ALL_POSTS_KEY);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return null;
+        }
+        return cached.join();
+    }
+
+    /**
+     * Seeds the per-post cache with a loaded list of posts.
+     * An empty result is not cached, so an upstream that briefly serves no posts is asked again on the next read.
+     *
+     * @param posts the loaded posts
+     * @return the posts to cache, or null if there is nothing worth caching
+     */
+    private List<Post> cacheablePosts(List<Post> posts) {
+        if (posts == null || posts.isEmpty()) {
+            return null;
+        }
+        for (Post post : posts) {
+            if (post.getId() != null) {
+                postCache.put(post.getId(), CompletableFuture.completedFuture(post));
+            }
+        }
+        return Collections.unmodifiableList(posts);
+    }
+
+    /**
+     * Loads entries through the delegate. A reload that fails or yields nothing is cancelled, so the cache
+     * keeps serving the stale entry without renewing its age.
+     * Loads and reloads are started on the load pool: the async methods of a blocking delegate make the
+     * upstream call on the calling thread, which is the request thread that missed or read the stale entry,
+     * and for a miss also holds the cache's map lock for the key. The cache's own executor is left to its
+     * short maintenance tasks, which would otherwise take queue slots from loads.
+     */
+    private static final class StaleIfErrorLoader<K, V> implements AsyncCacheLoader<K, V> {
+
+        private final Function<K, CompletableFuture<V>> load;
+        private final Executor loadExecutor;
+
+        StaleIfErrorLoader(Function<K, CompletableFuture<V>> load, Executor loadExecutor) {
+            this.load = load;
+            this.loadExecutor = loadExecutor;
+        }
+
+        // A blocking delegate throws from its async methods, e.g. when the upstream guard rejects the call;
+        // supplyAsync turns that into a failed future
+        @Override
+        public CompletableFuture<V> asyncLoad(K key, Executor executor) {
+            try {
+                return CompletableFuture.supplyAsync(() -> load.apply(key), loadExecutor)
+                        .thenCompose(Function.identity());
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.failedFuture(
+                        new UpstreamUnavailableException("Upstream load capacity exhausted", LOAD_RETRY_AFTER, e));
+            }
+        }
+
+        // A reload the pool has no room for is cancelled, so the stale entry is kept
+        @Override
+        public CompletableFuture<V> asyncReload(K key, V oldValue, Executor executor) {
+            CompletableFuture<V> reloaded = new CompletableFuture<>();
+            try {
+                CompletableFuture.supplyAsync(() -> load.apply(key), loadExecutor)
+                        .thenCompose(Function.identity())
+                        .whenComplete((value, error) -> {
+                            if (value != null) {
+                                reloaded.complete(value);
+                            } else {
+                                reloaded.cancel(false);
+                            }
+                        });
+            } catch (RejectedExecutionException e) {
+                reloaded.cancel(false);
+            }
+            return reloaded;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.dto.PostBatchOperation;
+import com.example.demo_junie.dto.PostBatchResult;
+import com.example.demo_junie.model.InvalidPostQueryException;
+import com.example.demo_junie.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executes many post operations or lookups at once, fanning them out to the upstream in parallel.
+ * Operations run on a dedicated pool whose size bounds the number of concurrent upstream calls
+ * made on behalf of batches; each operation holds its thread until its upstream call has completed.
+ * Only a bounded number of operations may be pending (running or queued) at once. A batch is admitted
+ * as a whole or not at all: when it does not fit, it is rejected with a {@link BatchCapacityExceededException}
+ * before any of its operations runs, instead of queueing behind the batches already admitted.
+ */
+@Service
+public class PostBatchService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostBatchService.class);
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final PostService postService;
+    private final int maxOperations;
+    private final Semaphore pendingOperations;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructor for PostBatchService.
+     *
+     * @param postService the service to use for post operations
+     * @param parallelism the maximum number of operations running at once
+     * @param maxOperations the maximum number of operations in one batch
+     * @param maxPending the maximum number of operations running or queued across all batches
+     * @throws IllegalArgumentException if maxPending is smaller than maxOperations, so a full batch could never be admitted
+     */
+    @Autowired
+    public PostBatchService(PostService postService,
+                            @Value("${posts.batch.parallelism:16}") int parallelism,
+                            @Value("${posts.batch.max-operations:1000}") int maxOperations,
+                            @Value("${posts.batch.max-pending:2000}") int maxPending) {
+        if (maxPending < maxOperations) {
+            throw new IllegalArgumentException("posts.batch.max-pending (" + maxPending
+                    + ") must not be smaller than posts.batch.max-operations (" + maxOperations + ")");
+        }
+        this.postService = postService;
+        this.maxOperations = maxOperations;
+        this.pendingOperations = new Semaphore(maxPending);
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxPending),
+                new CustomizableThreadFactory("post-batch-"));
+    }
+
+    /**
+     * Executes a batch of operations in parallel.
+     *
+     * @param operations the operations to execute
+     * @return a future completed with one result per operation, in request order
+     * @throws InvalidPostQueryException if the batch is empty or too large
+     * @throws BatchCapacityExceededException if too many operations are pending to admit the batch
+     */
+    public CompletableFuture<List<PostBatchResult>> execute(List<PostBatchOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new InvalidPostQueryException("batch must contain at least one operation");
+        }
+        if (operations.size() > maxOperations) {
+            throw new InvalidPostQueryException("batch must not contain more than " + maxOperations + " operations");
+        }
+
+        List<Supplier<PostBatchResult>> tasks = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            int index = i;
+            PostBatchOperation operation = operations.get(i);
+            tasks.add(() -> apply(index, operation));
+        }
+        List<CompletableFuture<PostBatchResult>> futures = submitAll(tasks);
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<PostBatchResult> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<PostBatchResult> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Looks up many posts by ID in parallel.
+     * Duplicate IDs are looked up once; cached posts are served by the post service without an upstream call.
+     *
+     * @param ids the IDs of the posts to look up
+     * @return a future completed with the posts that exist, in the order their IDs were first requested,
+     *         or failed with an {@link UpstreamUnavailableException} if a lookup was rejected
+     *         or an {@link UpstreamFailureException} if a lookup failed
+     * @throws InvalidPostQueryException if no or too many distinct IDs are requested
+     * @throws BatchCapacityExceededException if too many operations are pending to admit the lookups
+     */
+    public CompletableFuture<List<Post>> getPostsByIds(List<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    distinctIds.add(id);
+                }
+            }
+        }
+        if (distinctIds.isEmpty()) {
+            throw new InvalidPostQueryException("ids must contain at least one ID");
+        }
+        if (distinctIds.size() > maxOperations) {
+            throw new InvalidPostQueryException("ids must not contain more than " + maxOperations + " IDs");
+        }
+
+        List<Supplier<Post>> tasks = new ArrayList<>(distinctIds.size());
+        for (Long id : distinctIds) {
+            tasks.add(() -> postService.getPostById(id));
+        }
+        List<CompletableFuture<Post>> futures = submitAll(tasks);
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<Post> posts = new ArrayList<>(futures.size());
+            for (CompletableFuture<Post> future : futures) {
+                Post post = future.join();
+                if (post != null) {
+                    posts.add(post);
+                }
+            }
+            return posts;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Admits all tasks of a request at once and submits them to the pool.
+     * If the pool refuses a task, the permits of the tasks not submitted are released again;
+     * the submitted ones release theirs when they complete.
+     *
+     * @param tasks the tasks to run
+     * @return one future per task, in task order
+     * @throws BatchCapacityExceededException if the pending operations leave no room for all tasks
+     */
+    private <T> List<CompletableFuture<T>> submitAll(List<Supplier<T>> tasks) {
+        if (!pendingOperations.tryAcquire(tasks.size())) {
+            throw new BatchCapacityExceededException("Batch capacity exhausted", RETRY_AFTER);
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Supplier<T> task : tasks) {
+                futures.add(CompletableFuture.supplyAsync(task, executor)
+                        .whenComplete((result, e) -> pendingOperations.release()));
+            }
+        } catch (RuntimeException e) {
+            pendingOperations.release(tasks.size() - futures.size());
+            throw e;
+        }
+        return futures;
+    }
+
+    /**
+     * Executes a single operation and maps its outcome to the status the single-item endpoint would return.
+     *
+     * @param index the position of the operation in the batch
+     * @param operation the operation to execute
+     * @return the result of the operation
+     */
+    private PostBatchResult apply(int index, PostBatchOperation operation) {
+        if (operation == null || operation.getOp() == null) {
+            return failure(index, HttpStatus.BAD_REQUEST, "op is required");
+        }
+
+        try {
+            switch (operation.getOp()) {
+                case CREATE:
+                    if (operation.getPost() == null) {
+                        return failure(index, HttpStatus.BAD_REQUEST, "post is required");
+                    }
+                    Post createdPost = postService.createPost(operation.getPost());
+                    return createdPost != null
+                            ? success(index, HttpStatus.CREATED, createdPost)
+                            : failure(index, HttpStatus.BAD_REQUEST, "Post could not be created");
+                case UPDATE:
+                    if (operation.getId() == null || operation.getPost() == null) {
+                        return failure(index, HttpStatus.BAD_REQUEST, "id and post are required");
+                    }
+                    Post updatedPost = postService.updatePost(operation.getId(), operation.getPost());
+                    return updatedPost != null
+                            ? success(index, HttpStatus.OK, updatedPost)
+                            : failure(index, HttpStatus.NOT_FOUND, "Post not found");
+                case DELETE:
+                    if (operation.getId() == null) {
+                        return failure(index, HttpStatus.BAD_REQUEST, "id is required");
+                    }
+                    return postService.deletePost(operation.getId())
+                            ? success(index, HttpStatus.NO_CONTENT, null)
+                            : failure(index, HttpStatus.NOT_FOUND, "Post not found");
+                default:
+                    return failure(index, HttpStatus.BAD_REQUEST, "Unsupported op");
+            }
+        } catch (UpstreamUnavailableException e) {
+            return failure(index, HttpStatus.SERVICE_UNAVAILABLE, "Upstream unavailable, please try again later");
+        } catch (UpstreamFailureException e) {
+            return failure(index, HttpStatus.BAD_GATEWAY, "Upstream failed, please try again later");
+        } catch (RuntimeException e) {
+            logger.error("Error executing batch operation {}: {}", index, e.getMessage());
+            return failure(index, HttpStatus.INTERNAL_SERVER_ERROR, "Operation failed");
+        }
+    }
+
+    private static PostBatchResult success(int index, HttpStatus status, Post post) {
+        return new PostBatchResult(index, status.value(), post, null);
+    }
+
+    private static PostBatchResult failure(int index, HttpStatus status, String error) {
+        return new PostBatchResult(index, status.value(), null, error);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Warms up the post caches from the post store's first load.
+ * The caches are seeded in the background, on the thread that loads the store, and before the store
+ * reports itself ready; the readiness probe waits for that, so the first requests routed to a new
+ * instance are served from memory instead of all missing and stampeding the upstream. Startup itself
+ * does not wait for the upstream.
+ */
+@Component
+public class PostCacheWarmer implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCacheWarmer.class);
+
+    private final PostStore postStore;
+    private final CachingPostService cachingPostService;
+
+    /**
+     * Constructor for PostCacheWarmer.
+     *
+     * @param postStore the local post store, whose first load provides the posts
+     * @param cachingPostService the caching service whose caches are seeded
+     */
+    @Autowired
+    public PostCacheWarmer(PostStore postStore, CachingPostService cachingPostService) {
+        this.postStore = postStore;
+        this.cachingPostService = cachingPostService;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        postStore.addLoadListener(this::warmUp);
+    }
+
+    private void warmUp(List<Post> posts) {
+        cachingPostService.warmUp(posts);
+        logger.info("Warmed up post caches with {} posts", posts.size());
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post titles and bodies, ranked with Okapi BM25.
+ * Each indexed post gets a dense document number; every term maps to a posting list of
+ * document numbers and term frequencies, so a query only touches the posts that contain its terms.
+ * Title occurrences count {@value #TITLE_WEIGHT} times. Updates are incremental; searches
+ * run concurrently with each other and are serialized with updates.
+ */
+public class PostSearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final int TITLE_WEIGHT = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docsByPostId = new HashMap<>();
+
+    // Per-document data, indexed by document number
+    private Post[] posts = new Post[16];
+    private String[][] docTerms = new String[16][];
+    private int[] lengths = new int[16];
+
+    // Document numbers of removed posts, reused before new ones are allocated
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    private int maxDoc;
+    private long totalLength;
+
+    /**
+     * Builds an index over the given posts.
+     *
+     * @param posts the posts to index
+     * @return a new index
+     */
+    public static PostSearchIndex of(Collection<Post> posts) {
+        PostSearchIndex index = new PostSearchIndex();
+        index.replaceAll(posts);
+        return index;
+    }
+
+    /**
+     * Indexes a post, replacing an earlier version with the same ID.
+     *
+     * @param post the post to index; ignored if it has no ID
+     */
+    public void put(Post post) {
+        if (post == null || post.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDoc(post.getId());
+            addDoc(post);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a post from the index.
+     *
+     * @param id the ID of the post to remove
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole content of the index.
+     *
+     * @param newPosts the posts to index
+     */
+    public void replaceAll(Collection<Post> newPosts) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docsByPostId.clear();
+            Arrays.fill(posts, null);
+            Arrays.fill(docTerms, null);
+            freeCount = 0;
+            maxDoc = 0;
+            totalLength = 0;
+            for (Post post : newPosts) {
+                if (post != null && post.getId() != null) {
+                    removeDoc(post.getId());
+                    addDoc(post);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed posts.
+     *
+     * @return the number of posts
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByPostId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the posts that contain any of the query's terms, best match first.
+     * Posts with equal scores are ordered by ID.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of posts to return
+     * @return the best matching posts
+     */
+    public List<Post> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit < 1) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = docsByPostId.size();
+            double averageLength = docCount == 0 ? 1.0 : (double) totalLength / docCount;
+            double[] scores = new double[maxDoc];
+            int[] matched = new int[maxDoc];
+            int matchedCount = 0;
+
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (docCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+                for (int i = 0; i < termPostings.size; i++) {
+                    int doc = termPostings.docs[i];
+                    int tf = termPostings.freqs[i];
+                    double norm = K1 * (1.0 - B + B * lengths[doc] / averageLength);
+                    if (scores[doc] == 0.0) {
+                        matched[matchedCount++] = doc;
+                    }
+                    scores[doc] += idf * tf * (K1 + 1.0) / (tf + norm);
+                }
+            }
+
+            // Keep the best documents in a min-heap bounded by the limit
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, Math.max(matchedCount, 1)),
+                    (a, b) -> compareHits(scores, b, a));
+            for (int i = 0; i < matchedCount; i++) {
+                best.offer(matched[i]);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            Post[] result = new Post[best.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = posts[best.poll()];
+            }
+            return new ArrayList<>(Arrays.asList(result));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-case terms made of letters and digits.
+     *
+     * @param text the text to split
+     * @return the terms in order of occurrence
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Orders hits by descending score, then by ascending post ID.
+     */
+    private int compareHits(double[] scores, int a, int b) {
+        int byScore = Double.compare(scores[b], scores[a]);
+        return byScore != 0 ? byScore : Long.compare(posts[a].getId(), posts[b].getId());
+    }
+
+    private void addDoc(Post post) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(post.getTitle())) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(post.getBody())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+
+        int doc = allocateDoc();
+        int length = 0;
+        String[] terms = new String[frequencies.size()];
+        int t = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(doc, entry.getValue());
+            terms[t++] = entry.getKey();
+            length += entry.getValue();
+        }
+
+        posts[doc] = post;
+        docTerms[doc] = terms;
+        lengths[doc] = length;
+        totalLength += length;
+        docsByPostId.put(post.getId(), doc);
+    }
+
+    private void removeDoc(long postId) {
+        Integer doc = docsByPostId.remove(postId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : docTerms[doc]) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(doc);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[doc];
+        posts[doc] = null;
+        docTerms[doc] = null;
+        lengths[doc] = 0;
+
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+    }
+
+    private int allocateDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (maxDoc == posts.length) {
+            int capacity = maxDoc * 2;
+            posts = Arrays.copyOf(posts, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        return maxDoc++;
+    }
+
+    /**
+     * Posting list of one term: parallel arrays of document numbers and term frequencies, in no particular order.
+     */
+    private static final class Postings {
+
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    size--;
+                    docs[i] = docs[size];
+                    freqs[i] = freqs[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.demo_junie.service;
 
 import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service interface for handling operations related to Posts from JSONPlaceholder API.
@@ -47,4 +50,110 @@ public interface PostService {
      * @return true if the post was successfully deleted, false otherwise
      */
     boolean deletePost(Long id);
+    
+    /**
+     * Retrieves the posts matching a query: filtered by author, paged and reduced to the requested fields.
+     * The default implementation evaluates the query against {@link #getAllPosts()}.
+     *
+     * @param query the query to evaluate
+     * @return the matching posts on the requested page
+     */
+    default List<Post> findPosts(PostQuery query) {
+        return query.apply(getAllPosts());
+    }
+    
+    /**
+     * Runs a full-text search over post titles and bodies, best match first.
+     * The default implementation indexes {@link #getAllPosts()} for every call.
+     *
+     * @param text the free-text query
+     * @param limit the maximum number of posts to return
+     * @return the best matching posts
+     */
+    default List<Post> searchPosts(String text, int limit) {
+        return PostSearchIndex.of(getAllPosts()).search(text, limit);
+    }
+    
+    /**
+     * Passes every post to the consumer as it is decoded, without materializing the full list.
+     * A failure partway through is thrown, never turned into an early, normal end of the stream.
+     * The default implementation iterates over {@link #getAllPosts()}.
+     *
+     * @param consumer receives each post in upstream order
+     */
+    default void forEachPost(Consumer<Post> consumer) {
+        getAllPosts().forEach(consumer);
+    }
+    
+    /**
+     * Retrieves all posts asynchronously.
+     * Blocking implementations complete the returned future on the calling thread.
+     *
+     * @return a future completed with a list of all posts
+     */
+    default CompletableFuture<List<Post>> getAllPostsAsync() {
+        return CompletableFuture.completedFuture(getAllPosts());
+    }
+    
+    /**
+     * Retrieves the posts matching a query asynchronously.
+     *
+     * @param query the query to evaluate
+     * @return a future completed with the matching posts on the requested page
+     */
+    default CompletableFuture<List<Post>> findPostsAsync(PostQuery query) {
+        return CompletableFuture.completedFuture(findPosts(query));
+    }
+    
+    /**
+     * Runs a full-text search over post titles and bodies asynchronously.
+     *
+     * @param text the free-text query
+     * @param limit the maximum number of posts to return
+     * @return a future completed with the best matching posts
+     */
+    default CompletableFuture<List<Post>> searchPostsAsync(String text, int limit) {
+        return CompletableFuture.completedFuture(searchPosts(text, limit));
+    }
+    
+    /**
+     * Retrieves a specific post by its ID asynchronously.
+     *
+     * @param id the ID of the post to retrieve
+     * @return a future completed with the post, or with null if not found
+     */
+    default CompletableFuture<Post> getPostByIdAsync(Long id) {
+        return CompletableFuture.completedFuture(getPostById(id));
+    }
+    
+    /**
+     * Creates a new post asynchronously.
+     *
+     * @param post the post to create
+     * @return a future completed with the created post, or with null if creation failed
+     */
+    default CompletableFuture<Post> createPostAsync(Post post) {
+        return CompletableFuture.completedFuture(createPost(post));
+    }
+    
+    /**
+     * Updates an existing post asynchronously.
+     *
+     * @param id the ID of the post to update
+     * @param post the updated post data
+     * @return a future completed with the updated post, or with null if not found
+     */
+    default CompletableFuture<Post> updatePostAsync(Long id, Post post) {
+        return CompletableFuture.completedFuture(updatePost(id, post));
+    }
+    
+    /**
+     * Deletes a post by its ID asynchronously.
+     *
+     * @param id the ID of the post to delete
+     * @return a future completed with true if the post was deleted, false otherwise
+     */
+    default CompletableFuture<Boolean> deletePostAsync(Long id) {
+        return CompletableFuture.completedFuture(deletePost(id));
+    }
 }
\ No newline at end of file
@@ -1,100 +1,172 @@
 package com.example.demo_junie.service;
 
 import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the PostService interface that interacts with the JSONPlaceholder API.
+ * This is the default, blocking upstream client; set {@code jsonplaceholder.api.client=reactive}
+ * to use {@link WebClientPostService} instead.
+ * Every upstream call goes through the {@link UpstreamGuard}. Rejected calls fail fast with an
+ * {@link UpstreamUnavailableException}; other upstream errors, except a 404 for a single post, are logged
+ * and fail with an {@link UpstreamFailureException}.
  */
 @Service
+@Qualifier("upstream")
+@ConditionalOnProperty(name = "jsonplaceholder.api.client", havingValue = "blocking", matchIfMissing = true)
 public class PostServiceImpl implements PostService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PostServiceImpl.class);
+
+    private static final String ALL_POSTS_KEY = "all";
+
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
     private final String baseUrl;
+    private final UpstreamGuard upstreamGuard;
+
+    // Concurrent reads for the same key share one upstream request
+    private final SingleFlight<String, List<Post>> allPostsFlight = new SingleFlight<>();
+    private final SingleFlight<Long, Post> postFlight = new SingleFlight<>();
+
+    // Revalidated with If-None-Match on the next fetch of all posts
+    private volatile ValidatedPosts lastAllPosts = ValidatedPosts.NONE;
 
     /**
      * Constructor for PostServiceImpl.
      *
      * @param restTemplate the RestTemplate to use for making HTTP requests
+     * @param objectMapper the ObjectMapper used to decode streamed responses
      * @param baseUrl the base URL of the JSONPlaceholder API
+     * @param upstreamGuard the circuit breaker and bulkheads guarding upstream calls
      */
     @Autowired
     public PostServiceImpl(RestTemplate restTemplate, 
-                          @Value("${jsonplaceholder.api.base-url}") String baseUrl) {
+                          ObjectMapper objectMapper,
+                          @Value("${jsonplaceholder.api.base-url}") String baseUrl,
+                          UpstreamGuard upstreamGuard) {
         this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
         this.baseUrl = baseUrl;
+        this.upstreamGuard = upstreamGuard;
     }
 
     @Override
     public List<Post> getAllPosts() {
+        return allPostsFlight.execute(ALL_POSTS_KEY, this::fetchAllPosts);
+    }
+
+    @Override
+    public Post getPostById(Long id) {
+        return postFlight.execute(id, () -> fetchPostById(id));
+    }
+
+    /**
+     * Pushes the filter and page down into the upstream query; the projection is applied locally.
+     */
+    @Override
+    public List<Post> findPosts(PostQuery query) {
         try {
-            ResponseEntity<Post[]> response = restTemplate.getForEntity(
-                    baseUrl + "/posts", 
-                    Post[].class
-            );
-            
+            String url = UriComponentsBuilder.fromUriString(baseUrl + "/posts")
+                    .queryParams(query.toUpstreamParams())
+                    .toUriString();
+            ResponseEntity<Post[]> response = upstreamGuard.call(UpstreamGuard.FIND_POSTS,
+                    () -> restTemplate.getForEntity(url, Post[].class));
+
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return Arrays.asList(response.getBody());
+                List<Post> posts = new ArrayList<>(response.getBody().length);
+                for (Post post : response.getBody()) {
+                    posts.add(query.project(post));
+                }
+                return posts;
             }
             return Collections.emptyList();
-        } catch (Exception e) {
-            // Log the exception
-            System.err.println("Error fetching all posts: " + e.getMessage());
-            return Collections.emptyList();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw upstreamGuard.unavailable(UpstreamGuard.FIND_POSTS, e);
+        } catch (RestClientException e) {
+            throw failure("Error querying posts", e);
         }
     }
 
+    /**
+     * Decodes the upstream array one element at a time and hands each post to the consumer
+     * before reading the next, so only one post is held in memory at a time.
+     * Upstream failures, also those after some posts were passed on, and errors thrown by the consumer
+     * are propagated, so the caller can tell a complete stream from a truncated one.
+     *
+     * @throws UpstreamUnavailableException if the call was rejected
+     * @throws UpstreamFailureException if the upstream request or the decoding of its response failed
+     */
     @Override
-    public Post getPostById(Long id) {
+    public void forEachPost(Consumer<Post> consumer) {
         try {
-            ResponseEntity<Post> response = restTemplate.getForEntity(
-                    baseUrl + "/posts/" + id, 
-                    Post.class
-            );
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                return response.getBody();
-            }
-            return null;
-        } catch (HttpClientErrorException.NotFound e) {
-            // Post not found
-            return null;
-        } catch (Exception e) {
-            // Log the exception
-            System.err.println("Error fetching post with ID " + id + ": " + e.getMessage());
-            return null;
+            upstreamGuard.stream(UpstreamGuard.STREAM_POSTS, () -> restTemplate.execute(
+                    baseUrl + "/posts",
+                    HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON)),
+                    response -> {
+                        try (JsonParser parser = objectMapper.createParser(response.getBody())) {
+                            if (parser.nextToken() == JsonToken.START_ARRAY) {
+                                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                    consumer.accept(objectMapper.readValue(parser, Post.class));
+                                }
+                            }
+                        }
+                        return null;
+                    }
+            ));
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw upstreamGuard.unavailable(UpstreamGuard.STREAM_POSTS, e);
+        } catch (RestClientException e) {
+            throw failure("Error streaming all posts", e);
         }
     }
 
     @Override
     public Post createPost(Post post) {
         try {
-            ResponseEntity<Post> response = restTemplate.postForEntity(
+            ResponseEntity<Post> response = upstreamGuard.call(UpstreamGuard.CREATE_POST, () -> restTemplate.postForEntity(
                     baseUrl + "/posts", 
                     post, 
                     Post.class
-            );
+            ));
             
             if (response.getStatusCode() == HttpStatus.CREATED || response.getStatusCode() == HttpStatus.OK) {
                 return response.getBody();
             }
             return null;
-        } catch (Exception e) {
-            // Log the exception
-            System.err.println("Error creating post: " + e.getMessage());
-            return null;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw upstreamGuard.unavailable(UpstreamGuard.CREATE_POST, e);
+        } catch (RestClientException e) {
+            throw failure("Error creating post", e);
         }
     }
 
@@ -105,40 +177,121 @@ public class PostServiceImpl implements PostService {
             post.setId(id);
             
             HttpEntity<Post> requestEntity = new HttpEntity<>(post);
-            ResponseEntity<Post> response = restTemplate.exchange(
+            ResponseEntity<Post> response = upstreamGuard.call(UpstreamGuard.UPDATE_POST, () -> restTemplate.exchange(
                     baseUrl + "/posts/" + id, 
                     HttpMethod.PUT, 
                     requestEntity, 
                     Post.class
-            );
+            ));
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 return response.getBody();
             }
             return null;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw upstreamGuard.unavailable(UpstreamGuard.UPDATE_POST, e);
         } catch (HttpClientErrorException.NotFound e) {
             // Post not found
             return null;
-        } catch (Exception e) {
-            // Log the exception
-            System.err.println("Error updating post with ID " + id + ": " + e.getMessage());
-            return null;
+        } catch (RestClientException e) {
+            throw failure("Error updating post with ID " + id, e);
         }
     }
 
     @Override
     public boolean deletePost(Long id) {
         try {
-            restTemplate.delete(baseUrl + "/posts/" + id);
+            upstreamGuard.call(UpstreamGuard.DELETE_POST, () -> {
+                restTemplate.delete(baseUrl + "/posts/" + id);
+                return null;
+            });
             // JSONPlaceholder doesn't actually delete resources, but returns a 200 OK status
             return true;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw upstreamGuard.unavailable(UpstreamGuard.DELETE_POST, e);
         } catch (HttpClientErrorException.NotFound e) {
             // Post not found
             return false;
-        } catch (Exception e) {
-            // Log the exception
-            System.err.println("Error deleting post with ID " + id + ": " + e.getMessage());
-            return false;
+        } catch (RestClientException e) {
+            throw failure("Error deleting post with ID " + id, e);
         }
     }
+
+    /**
+     * Fetches all posts from the upstream API.
+     * If the upstream served the previous list with an ETag, the request is made conditional
+     * and a 304 Not Modified reuses the previous list.
+     *
+     * @return a list of all posts
+     * @throws UpstreamUnavailableException if the call was rejected
+     * @throws UpstreamFailureException if the request failed
+     */
+    private List<Post> fetchAllPosts() {
+        try {
+            ValidatedPosts previous = lastAllPosts;
+            HttpHeaders headers = new HttpHeaders();
+            previous.addPrecondition(headers);
+            ResponseEntity<Post[]> response = upstreamGuard.call(UpstreamGuard.GET_ALL_POSTS, () -> restTemplate.exchange(
+                    baseUrl + "/posts",
+                    HttpMethod.GET,
+                    new HttpEntity<>(headers),
+                    Post[].class
+            ));
+
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                return previous.getPosts();
+            }
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                List<Post> posts = Arrays.asList(response.getBody());
+                lastAllPosts = new ValidatedPosts(response.getHeaders().getETag(), posts);
+                return posts;
+            }
+            return Collections.emptyList();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw upstreamGuard.unavailable(UpstreamGuard.GET_ALL_POSTS, e);
+        } catch (RestClientException e) {
+            throw failure("Error fetching all posts", e);
+        }
+    }
+
+    /**
+     * Fetches a single post from the upstream API.
+     *
+     * @param id the ID of the post to fetch
+     * @return the post, or null if it was not found
+     * @throws UpstreamUnavailableException if the call was rejected
+     * @throws UpstreamFailureException if the request failed
+     */
+    private Post fetchPostById(Long id) {
+        try {
+            ResponseEntity<Post> response = upstreamGuard.call(UpstreamGuard.GET_POST, () -> restTemplate.getForEntity(
+                    baseUrl + "/posts/" + id, 
+                    Post.class
+            ));
+            
+            if (response.getStatusCode() == HttpStatus.OK) {
+                return response.getBody();
+            }
+            return null;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw upstreamGuard.unavailable(UpstreamGuard.GET_POST, e);
+        } catch (HttpClientErrorException.NotFound e) {
+            // Post not found
+            return null;
+        } catch (RestClientException e) {
+            throw failure("Error fetching post with ID " + id, e);
+        }
+    }
+
+    /**
+     * Logs a failed upstream call and wraps it for the caller.
+     *
+     * @param message the message describing the call
+     * @param e the failure
+     * @return the exception to throw
+     */
+    private static UpstreamFailureException failure(String message, RestClientException e) {
+        logger.error("{}: {}", message, e.getMessage());
+        return new UpstreamFailureException(message + ": " + e.getMessage(), e);
+    }
 }
\ No newline at end of file
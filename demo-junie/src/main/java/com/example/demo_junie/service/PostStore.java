@@ -0,0 +1,433 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Locally materialized copy of all posts, refreshed from the upstream in the background.
+ * Posts are held in an immutable snapshot of sorted primitive arrays: a primary index of post ids
+ * and a secondary userId index in compressed-row layout (distinct user ids, offsets, post positions).
+ * Reads never lock; writes build a new snapshot and publish it atomically.
+ * A {@link PostSearchIndex} over the same posts is kept up to date incrementally with every write.
+ * Unless disabled, the first load starts when the store is created and is announced to the load listeners; later refreshes are spread out by a random jitter
+ * so that instances started together do not hit the upstream together, and only re-index posts that changed.
+ */
+@Component
+public class PostStore implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostStore.class);
+
+    // Retry delay while the store has never been loaded
+    private static final Duration LOAD_RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final PostService upstream;
+    private final Duration refreshInterval;
+    private final Duration refreshJitter;
+    private final boolean refreshEnabled;
+    private final ScheduledExecutorService refresher;
+
+    private final PostSearchIndex searchIndex = new PostSearchIndex();
+
+    // Called once with all posts when the store is first loaded; guarded by this
+    private final List<Consumer<List<Post>>> loadListeners = new ArrayList<>();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+    private volatile boolean ready;
+
+    // The list the last refresh was built from; the upstream client returns the same list when it is unchanged
+    private List<Post> lastRefreshed;
+
+    /**
+     * Constructor for PostStore.
+     *
+     * @param upstream the PostService that talks to the upstream API
+     * @param refreshInterval the average delay between two refreshes from the upstream
+     * @param refreshJitter the maximum random deviation from the refresh interval
+     * @param refreshEnabled whether the store loads and refreshes itself from the upstream once it is created
+     */
+    @Autowired
+    public PostStore(@Qualifier("upstream") PostService upstream,
+                     @Value("${posts.store.refresh-interval:5m}") Duration refreshInterval,
+                     @Value("${posts.store.refresh-jitter:30s}") Duration refreshJitter,
+                     @Value("${posts.store.refresh-enabled:true}") boolean refreshEnabled) {
+        this.upstream = upstream;
+        this.refreshInterval = refreshInterval;
+        this.refreshJitter = refreshJitter;
+        this.refreshEnabled = refreshEnabled;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-store-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!refreshEnabled) {
+            logger.info("Post store refresh is disabled; reads are served by the upstream");
+            return;
+        }
+        refresher.execute(this::scheduledRefresh);
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Reloads all posts from the upstream and applies the differences to the store.
+     * An empty result is ignored, so an upstream that briefly serves no posts does not empty the store.
+     *
+     * @return true if the upstream returned posts
+     */
+    public boolean refresh() {
+        List<Post> posts = upstream.getAllPosts();
+        if (posts == null || posts.isEmpty()) {
+            return false;
+        }
+        synchronized (this) {
+            if (posts != lastRefreshed) {
+                int changes = update(posts);
+                logger.debug("Refreshed post store: {} posts, {} added, changed or removed", size(), changes);
+                lastRefreshed = posts;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registers a listener for the first load of the store. The listener is called once with all posts,
+     * on the thread that loads the store, after the store reports itself loaded and before it reports
+     * itself ready, or right away if it is loaded already.
+     *
+     * @param listener the listener
+     */
+    public synchronized void addLoadListener(Consumer<List<Post>> listener) {
+        if (loaded) {
+            notifyLoaded(listener);
+        } else {
+            loadListeners.add(listener);
+        }
+    }
+
+    /**
+     * Brings the store in line with a full list of posts. Only the posts that were added, changed
+     * (by content hash) or removed are re-indexed; if there are none, the snapshot is kept.
+     *
+     * @param posts the new content
+     * @return the number of posts that were added, changed or removed
+     */
+    public synchronized int update(Collection<Post> posts) {
+        if (!loaded) {
+            replaceAll(posts);
+            return size();
+        }
+        Snapshot current = snapshot;
+        Snapshot next = Snapshot.of(posts);
+
+        List<Post> changed = new ArrayList<>();
+        for (Post post : next.posts) {
+            Post existing = current.get(post.getId());
+            if (existing == null || existing.getContentHash() != post.getContentHash()) {
+                changed.add(post);
+            }
+        }
+        List<Long> removed = new ArrayList<>();
+        for (long id : current.ids) {
+            if (next.get(id) == null) {
+                removed.add(id);
+            }
+        }
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return 0;
+        }
+
+        snapshot = next;
+        changed.forEach(searchIndex::put);
+        removed.forEach(searchIndex::remove);
+        return changed.size() + removed.size();
+    }
+
+    /**
+     * Replaces the whole content of the store.
+     *
+     * @param posts the new content
+     */
+    public synchronized void replaceAll(Collection<Post> posts) {
+        snapshot = Snapshot.of(posts);
+        searchIndex.replaceAll(posts);
+        if (!loaded) {
+            loaded = true;
+            loadListeners.forEach(this::notifyLoaded);
+            loadListeners.clear();
+            ready = true;
+        }
+    }
+
+    /**
+     * Inserts or replaces a post.
+     *
+     * @param post the post to store; ignored if it has no ID
+     */
+    public synchronized void put(Post post) {
+        if (post == null || post.getId() == null) {
+            return;
+        }
+        List<Post> posts = new ArrayList<>(snapshot.posts.length + 1);
+        posts.addAll(Arrays.asList(snapshot.posts));
+        posts.add(post);
+        snapshot = Snapshot.of(posts);
+        searchIndex.put(post);
+    }
+
+    /**
+     * Removes a post.
+     *
+     * @param id the ID of the post to remove
+     */
+    public synchronized void remove(long id) {
+        Snapshot current = snapshot;
+        int position = Arrays.binarySearch(current.ids, id);
+        if (position < 0) {
+            return;
+        }
+        List<Post> posts = new ArrayList<>(Arrays.asList(current.posts));
+        posts.remove(position);
+        snapshot = Snapshot.of(posts);
+        searchIndex.remove(id);
+    }
+
+    /**
+     * Checks whether the store has been loaded from the upstream at least once.
+     *
+     * @return true if the store holds upstream data
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Checks whether the store is ready to serve: its first load has been announced to all load listeners,
+     * or the refresh is disabled, so the store will never be loaded and reads go to the upstream.
+     *
+     * @return true if the store is ready
+     */
+    public boolean isReady() {
+        return ready || !refreshEnabled;
+    }
+
+    /**
+     * Returns the number of stored posts.
+     *
+     * @return the number of posts
+     */
+    public int size() {
+        return snapshot.posts.length;
+    }
+
+    /**
+     * Returns all stored posts ordered by ID.
+     *
+     * @return an unmodifiable list of all posts
+     */
+    public List<Post> findAll() {
+        return Collections.unmodifiableList(Arrays.asList(snapshot.posts));
+    }
+
+    /**
+     * Looks up a post by its ID.
+     *
+     * @param id the ID of the post
+     * @return the post, or null if it is not stored
+     */
+    public Post findById(long id) {
+        return snapshot.get(id);
+    }
+
+    /**
+     * Looks up the posts of an author through the secondary index.
+     *
+     * @param userId the ID of the author
+     * @return the author's posts ordered by ID
+     */
+    public List<Post> findByUserId(long userId) {
+        return snapshot.byUser(userId);
+    }
+
+    /**
+     * Evaluates a query against the stored posts, using the userId index when the query filters by author.
+     *
+     * @param query the query to evaluate
+     * @return the matching posts on the requested page
+     */
+    public List<Post> find(PostQuery query) {
+        Snapshot current = snapshot;
+        List<Post> candidates = query.getUserId() != null
+                ? current.byUser(query.getUserId())
+                : Arrays.asList(current.posts);
+        return query.apply(candidates);
+    }
+
+    /**
+     * Runs a full-text search over the stored posts' titles and bodies.
+     *
+     * @param text the free-text query
+     * @param limit the maximum number of posts to return
+     * @return the best matching posts, best match first
+     */
+    public List<Post> search(String text, int limit) {
+        return searchIndex.search(text, limit);
+    }
+
+    /**
+     * Refreshes the store and schedules the next refresh: after a jittered refresh interval once
+     * the store is loaded, after a short retry delay before that.
+     */
+    private void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.error("Error refreshing post store: {}", e.getMessage());
+        } finally {
+            if (!refresher.isShutdown()) {
+                refresher.schedule(this::scheduledRefresh, nextRefreshDelay(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void notifyLoaded(Consumer<List<Post>> listener) {
+        try {
+            listener.accept(findAll());
+        } catch (RuntimeException e) {
+            logger.error("Error notifying post store load listener: {}", e.getMessage());
+        }
+    }
+
+    private long nextRefreshDelay() {
+        if (!loaded) {
+            return Math.min(LOAD_RETRY_DELAY.toMillis(), refreshInterval.toMillis());
+        }
+        long jitter = refreshJitter.toMillis();
+        long offset = jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0;
+        return Math.max(0, refreshInterval.toMillis() + offset);
+    }
+
+    /**
+     * Immutable, array-backed view of the stored posts.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new long[0], new Post[0], new long[0], new int[]{0}, new int[0]);
+
+        // Primary index: sorted post ids, posts[i] has id ids[i]
+        final long[] ids;
+        final Post[] posts;
+
+        // Secondary index: the posts of userIds[u] are at positions postsByUser[userOffsets[u] .. userOffsets[u + 1])
+        final long[] userIds;
+        final int[] userOffsets;
+        final int[] postsByUser;
+
+        private Snapshot(long[] ids, Post[] posts, long[] userIds, int[] userOffsets, int[] postsByUser) {
+            this.ids = ids;
+            this.posts = posts;
+            this.userIds = userIds;
+            this.userOffsets = userOffsets;
+            this.postsByUser = postsByUser;
+        }
+
+        /**
+         * Builds a snapshot from posts in any order; for duplicate IDs the last post wins.
+         */
+        static Snapshot of(Collection<Post> source) {
+            Post[] sorted = source.stream()
+                    .filter(post -> post != null && post.getId() != null)
+                    .toArray(Post[]::new);
+            // Stable sort keeps insertion order among duplicates, so the last one can be kept
+            Arrays.sort(sorted, Comparator.comparing(Post::getId));
+
+            int count = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i + 1 < sorted.length && sorted[i + 1].getId().equals(sorted[i].getId())) {
+                    continue;
+                }
+                sorted[count++] = sorted[i];
+            }
+            Post[] posts = Arrays.copyOf(sorted, count);
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = posts[i].getId();
+            }
+
+            // Order post positions by (userId, id) and cut them into one run per author
+            Integer[] order = new Integer[count];
+            int indexed = 0;
+            for (int i = 0; i < count; i++) {
+                if (posts[i].getUserId() != null) {
+                    order[indexed++] = i;
+                }
+            }
+            Arrays.sort(order, 0, indexed, Comparator.comparing((Integer i) -> posts[i].getUserId()));
+
+            int[] postsByUser = new int[indexed];
+            long[] userIds = new long[indexed];
+            int[] userOffsets = new int[indexed + 1];
+            int users = 0;
+            for (int i = 0; i < indexed; i++) {
+                postsByUser[i] = order[i];
+                long userId = posts[order[i]].getUserId();
+                if (users == 0 || userIds[users - 1] != userId) {
+                    userIds[users] = userId;
+                    userOffsets[users] = i;
+                    users++;
+                }
+            }
+            userOffsets[users] = indexed;
+
+            return new Snapshot(ids, posts, Arrays.copyOf(userIds, users),
+                    Arrays.copyOf(userOffsets, users + 1), postsByUser);
+        }
+
+        Post get(long id) {
+            int position = Arrays.binarySearch(ids, id);
+            return position >= 0 ? posts[position] : null;
+        }
+
+        List<Post> byUser(long userId) {
+            int user = Arrays.binarySearch(userIds, userId);
+            if (user < 0) {
+                return Collections.emptyList();
+            }
+            int from = userOffsets[user];
+            int to = userOffsets[user + 1];
+            List<Post> result = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                result.add(posts[postsByUser[i]]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo_junie.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether the local post store is ready, i.e. loaded and announced to its load listeners.
+ * Part of the readiness health group, so an instance is only reported ready once it is warmed up.
+ */
+@Component
+public class PostStoreHealthIndicator implements HealthIndicator {
+
+    private final PostStore postStore;
+
+    /**
+     * Constructor for PostStoreHealthIndicator.
+     *
+     * @param postStore the local post store
+     */
+    @Autowired
+    public PostStoreHealthIndicator(PostStore postStore) {
+        this.postStore = postStore;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = postStore.isReady() ? Health.up() : Health.outOfService();
+        return builder.withDetail("posts", postStore.size()).build();
+    }
+}
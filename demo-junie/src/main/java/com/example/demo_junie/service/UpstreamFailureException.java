@@ -0,0 +1,19 @@
+package com.example.demo_junie.service;
+
+/**
+ * Thrown when an upstream call was made but failed: the upstream answered with an error status other than
+ * a 404 for a single post, or the request failed with an I/O error or a timeout. Like an
+ * {@link UpstreamUnavailableException}, it says nothing about the data.
+ */
+public class UpstreamFailureException extends RuntimeException {
+
+    /**
+     * Constructor with message and cause.
+     *
+     * @param message the detail message
+     * @param cause the failure of the upstream call
+     */
+    public UpstreamFailureException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
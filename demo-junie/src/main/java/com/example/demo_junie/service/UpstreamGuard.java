@@ -0,0 +1,341 @@
+package com.example.demo_junie.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards calls to the upstream API with a circuit breaker and per-operation bulkheads.
+ * The circuit opens when too many recent calls failed or were slow, and while it is open calls
+ * are rejected at once with a {@link CallNotPermittedException}, so callers can fall back to
+ * cached data instead of waiting for a degraded upstream. Each operation may only have a bounded
+ * number of calls in flight; further calls are rejected at once with a {@link BulkheadFullException}.
+ * Client errors (4xx) are answers from a healthy upstream and do not count as failures.
+ * State, call and bulkhead metrics are published as {@code resilience4j.*} meters, and every state
+ * transition increments {@code upstream.circuitbreaker.transitions}.
+ * Callers translate rejections with {@link #unavailable(String, RuntimeException)}, so that they are not
+ * mistaken for an absent post or an empty list.
+ * Every guarded call, including rejected ones, is recorded by the {@code upstream.calls} timer,
+ * tagged with the operation, the outcome ({@code SUCCESS}, {@code REDIRECTION}, {@code CLIENT_ERROR},
+ * {@code SERVER_ERROR}, {@code REJECTED} or {@code UNKNOWN} for I/O and decoding errors) and the HTTP status
+ * ({@code NONE} if there was no response, {@code UNKNOWN} if the caller only sees the decoded body).
+ */
+@Component
+public class UpstreamGuard {
+
+    public static final String GET_ALL_POSTS = "getAllPosts";
+    public static final String GET_POST = "getPostById";
+    public static final String FIND_POSTS = "findPosts";
+    public static final String STREAM_POSTS = "forEachPost";
+    public static final String CREATE_POST = "createPost";
+    public static final String UPDATE_POST = "updatePost";
+    public static final String DELETE_POST = "deletePost";
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamGuard.class);
+
+    private static final String CIRCUIT_BREAKER_NAME = "jsonplaceholder";
+
+    private static final String CALLS_METER = "upstream.calls";
+    private static final String REJECTED = "REJECTED";
+    private static final String NO_STATUS = "NONE";
+    private static final String UNKNOWN_STATUS = "UNKNOWN";
+
+    // Suggested to clients rejected by a full bulkhead, where capacity frees up as soon as a call completes
+    private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+
+    // Registered once per operation, so recording a call needs no meter lookup
+    private final Map<String, CallTimers> callTimers = new ConcurrentHashMap<>();
+
+    private final BulkheadRegistry bulkheads;
+    private final Duration openDuration;
+
+    /**
+     * Constructor for UpstreamGuard.
+     *
+     * @param meterRegistry the registry used to publish circuit breaker and bulkhead metrics
+     * @param failureRateThreshold the percentage of failed calls that opens the circuit
+     * @param slowCallRateThreshold the percentage of slow calls that opens the circuit
+     * @param slowCallDuration the duration above which a call counts as slow
+     * @param slidingWindowSize the number of recent calls the rates are computed over
+     * @param minimumCalls the number of calls needed before the rates are evaluated
+     * @param openDuration how long the circuit stays open before trial calls are let through
+     * @param maxConcurrentCalls the maximum number of concurrent upstream calls per operation
+     */
+    @Autowired
+    public UpstreamGuard(MeterRegistry meterRegistry,
+                         @Value("${jsonplaceholder.api.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                         @Value("${jsonplaceholder.api.circuit-breaker.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+                         @Value("${jsonplaceholder.api.circuit-breaker.slow-call-duration:2s}") Duration slowCallDuration,
+                         @Value("${jsonplaceholder.api.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                         @Value("${jsonplaceholder.api.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                         @Value("${jsonplaceholder.api.circuit-breaker.open-duration:30s}") Duration openDuration,
+                         @Value("${jsonplaceholder.api.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        this.meterRegistry = meterRegistry;
+        this.openDuration = openDuration;
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(openDuration)
+                .ignoreException(UpstreamGuard::isClientError)
+                .build());
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.circuitBreaker = circuitBreakers.circuitBreaker(CIRCUIT_BREAKER_NAME);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            logger.warn("Upstream circuit breaker: {}", event.getStateTransition());
+            meterRegistry.counter("upstream.circuitbreaker.transitions",
+                    "name", CIRCUIT_BREAKER_NAME,
+                    "from", event.getStateTransition().getFromState().name(),
+                    "to", event.getStateTransition().getToState().name()).increment();
+        });
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        for (String operation : List.of(GET_ALL_POSTS, GET_POST, FIND_POSTS, STREAM_POSTS,
+                CREATE_POST, UPDATE_POST, DELETE_POST)) {
+            callTimers.put(operation, new CallTimers(operation));
+        }
+    }
+
+    /**
+     * Returns whether the circuit is open, i.e. upstream calls are currently rejected.
+     *
+     * @return true if the circuit is open
+     */
+    public boolean isOpen() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    /**
+     * Returns whether an error is a rejection by the circuit breaker or a bulkhead, i.e. the call was not made.
+     *
+     * @param e the error of a guarded call
+     * @return true if the call was rejected
+     */
+    public static boolean isRejection(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+
+    /**
+     * Translates a rejection into an {@link UpstreamUnavailableException}. A client rejected by the
+     * open circuit is asked to retry after the open duration, one rejected by a full bulkhead after a second.
+     *
+     * @param operation the name of the rejected operation
+     * @param rejection the rejection, see {@link #isRejection(Throwable)}
+     * @return the exception to throw
+     */
+    public UpstreamUnavailableException unavailable(String operation, RuntimeException rejection) {
+        Duration retryAfter = rejection instanceof CallNotPermittedException ? openDuration : BULKHEAD_RETRY_AFTER;
+        return new UpstreamUnavailableException("Upstream call " + operation + " rejected: " + rejection.getMessage(),
+                retryAfter, rejection);
+    }
+
+    /**
+     * Executes a blocking upstream call.
+     *
+     * @param operation the name of the operation, selecting its bulkhead
+     * @param call the call to execute
+     * @return the result of the call
+     * @throws CallNotPermittedException if the circuit is open
+     * @throws BulkheadFullException if too many calls of this operation are in flight
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = bulkheads.bulkhead(operation).executeSupplier(circuitBreaker.decorateSupplier(call));
+            record(operation, start, result, null);
+            return result;
+        } catch (RuntimeException e) {
+            record(operation, start, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Guards a non-blocking upstream call; the guard applies when the Mono is subscribed to.
+     *
+     * @param operation the name of the operation, selecting its bulkhead
+     * @param call the call to guard
+     * @return the guarded call, which fails with {@link CallNotPermittedException} or {@link BulkheadFullException}
+     *         when rejected
+     */
+    public <T> Mono<T> call(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .transformDeferred(BulkheadOperator.of(bulkheads.bulkhead(operation)))
+                    .doOnSuccess(result -> record(operation, start, result, null))
+                    .doOnError(e -> record(operation, start, null, e));
+        });
+    }
+
+    /**
+     * Executes a blocking streaming call. It is subject to the bulkhead and rejected while the circuit
+     * is open, but its outcome is not recorded, because its duration depends on the consumer.
+     *
+     * @param operation the name of the operation, selecting its bulkhead
+     * @param call the call to execute
+     * @throws CallNotPermittedException if the circuit is open
+     * @throws BulkheadFullException if too many calls of this operation are in flight
+     */
+    public void stream(String operation, Runnable call) {
+        Bulkhead bulkhead = bulkheads.bulkhead(operation);
+        long start = System.nanoTime();
+        try {
+            bulkhead.executeRunnable(() -> {
+                checkClosed();
+                call.run();
+            });
+            record(operation, start, null, null);
+        } catch (RuntimeException e) {
+            record(operation, start, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Guards a non-blocking streaming call, like {@link #stream(String, Runnable)}.
+     *
+     * @param operation the name of the operation, selecting its bulkhead
+     * @param call the call to guard
+     * @return the guarded call
+     */
+    public <T> Flux<T> stream(String operation, Flux<T> call) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.defer(() -> {
+                        checkClosed();
+                        return call;
+                    })
+                    .transformDeferred(BulkheadOperator.of(bulkheads.bulkhead(operation)))
+                    .doOnComplete(() -> record(operation, start, null, null))
+                    .doOnError(e -> record(operation, start, null, e));
+        });
+    }
+
+    private void checkClosed() {
+        if (isOpen()) {
+            throw CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+        }
+    }
+
+    /**
+     * Records a guarded call in the {@code upstream.calls} timer.
+     *
+     * @param operation the name of the operation
+     * @param start the start of the call, from {@link System#nanoTime()}
+     * @param result the result of a successful call, or null
+     * @param error the error of a failed call, or null
+     */
+    private void record(String operation, long start, Object result, Throwable error) {
+        CallTimers timers = callTimers.computeIfAbsent(operation, CallTimers::new);
+        Timer timer;
+        HttpStatusCode statusCode = statusOf(result, error);
+        if (statusCode != null) {
+            timer = timers.forStatus(statusCode.value());
+        } else if (isRejection(error)) {
+            timer = timers.rejected;
+        } else if (error != null) {
+            timer = timers.failed;
+        } else {
+            timer = timers.decoded;
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The {@code upstream.calls} timers of one operation. Calls without a response are registered
+     * up front; timers for response statuses are registered the first time a status is seen.
+     */
+    private final class CallTimers {
+
+        private final String operation;
+        private final Timer rejected;
+        private final Timer failed;
+        private final Timer decoded;
+        private final Map<Integer, Timer> byStatus = new ConcurrentHashMap<>();
+
+        CallTimers(String operation) {
+            this.operation = operation;
+            this.rejected = timer(REJECTED, NO_STATUS);
+            this.failed = timer(Outcome.UNKNOWN.name(), NO_STATUS);
+            this.decoded = timer(Outcome.SUCCESS.name(), UNKNOWN_STATUS);
+        }
+
+        Timer forStatus(int status) {
+            return byStatus.computeIfAbsent(status,
+                    code -> timer(Outcome.forStatus(code).name(), Integer.toString(code)));
+        }
+
+        private Timer timer(String outcome, String status) {
+            return Timer.builder(CALLS_METER)
+                    .description("Calls to the upstream API")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .tag("status", status)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static HttpStatusCode statusOf(Object result, Throwable error) {
+        if (result instanceof ResponseEntity<?> response) {
+            return response.getStatusCode();
+        }
+        if (error instanceof HttpStatusCodeException e) {
+            return e.getStatusCode();
+        }
+        if (error instanceof WebClientResponseException e) {
+            return e.getStatusCode();
+        }
+        return null;
+    }
+
+    private static boolean isClientError(Throwable e) {
+        if (e instanceof HttpStatusCodeException) {
+            return ((HttpStatusCodeException) e).getStatusCode().is4xxClientError();
+        }
+        if (e instanceof WebClientResponseException) {
+            return ((WebClientResponseException) e).getStatusCode().is4xxClientError();
+        }
+        return false;
+    }
+}
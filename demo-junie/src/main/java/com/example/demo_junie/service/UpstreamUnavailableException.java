@@ -0,0 +1,31 @@
+package com.example.demo_junie.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an upstream call is rejected without being made, because the circuit is open or the
+ * operation's bulkhead is full. Unlike a missing post or an empty list, it says nothing about the data.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructor with message, retry hint and cause.
+     *
+     * @param message the detail message
+     * @param retryAfter how long the caller should wait before retrying
+     * @param cause the rejection
+     */
+    public UpstreamUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return how long the caller should wait before retrying
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The last list of posts received from the upstream together with the validator it was served with.
+ * Upstream clients send the validator back in If-None-Match and reuse the list on a 304 Not Modified,
+ * so an unchanged list is neither transferred nor decoded again.
+ */
+final class ValidatedPosts {
+
+    static final ValidatedPosts NONE = new ValidatedPosts(null, Collections.emptyList());
+
+    private final String etag;
+    private final List<Post> posts;
+
+    ValidatedPosts(String etag, List<Post> posts) {
+        this.etag = etag;
+        this.posts = posts;
+    }
+
+    /**
+     * Returns the entity tag the list was served with.
+     *
+     * @return the entity tag, or null if the upstream sent none
+     */
+    String getEtag() {
+        return etag;
+    }
+
+    List<Post> getPosts() {
+        return posts;
+    }
+
+    /**
+     * Adds an If-None-Match header for the stored validator, if there is one.
+     *
+     * @param headers the request headers
+     */
+    void addPrecondition(HttpHeaders headers) {
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking implementation of the PostService interface that interacts with the JSONPlaceholder API.
+ * Upstream calls run on the WebClient's I/O threads and complete the returned futures, so no request
+ * thread waits for the upstream. The synchronous methods block on the asynchronous ones.
+ * Every upstream call goes through the {@link UpstreamGuard}. Rejected calls fail fast with an
+ * {@link UpstreamUnavailableException}; other upstream errors, except a 404 for a single post, are logged
+ * and fail with an {@link UpstreamFailureException}.
+ * Only active when {@code jsonplaceholder.api.client=reactive}.
+ */
+@Service
+@Qualifier("upstream")
+@ConditionalOnProperty(name = "jsonplaceholder.api.client", havingValue = "reactive")
+public class WebClientPostService implements PostService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebClientPostService.class);
+
+    private static final String ALL_POSTS_KEY = "all";
+
+    private final WebClient webClient;
+    private final UpstreamGuard upstreamGuard;
+
+    // Concurrent reads for the same key share one upstream request
+    private final SingleFlight<String, List<Post>> allPostsFlight = new SingleFlight<>();
+    private final SingleFlight<Long, Post> postFlight = new SingleFlight<>();
+
+    // Revalidated with If-None-Match on the next fetch of all posts
+    private volatile ValidatedPosts lastAllPosts = ValidatedPosts.NONE;
+
+    /**
+     * Constructor for WebClientPostService.
+     *
+     * @param webClient the WebClient configured with the JSONPlaceholder base URL
+     * @param upstreamGuard the circuit breaker and bulkheads guarding upstream calls
+     */
+    @Autowired
+    public WebClientPostService(WebClient webClient, UpstreamGuard upstreamGuard) {
+        this.webClient = webClient;
+        this.upstreamGuard = upstreamGuard;
+    }
+
+    @Override
+    public List<Post> getAllPosts() {
+        return join(getAllPostsAsync());
+    }
+
+    @Override
+    public Post getPostById(Long id) {
+        return join(getPostByIdAsync(id));
+    }
+
+    @Override
+    public Post createPost(Post post) {
+        return join(createPostAsync(post));
+    }
+
+    @Override
+    public Post updatePost(Long id, Post post) {
+        return join(updatePostAsync(id, post));
+    }
+
+    @Override
+    public boolean deletePost(Long id) {
+        return join(deletePostAsync(id));
+    }
+
+    /**
+     * Decodes the upstream array element by element; the consumer runs on the calling thread
+     * and backpressure keeps only a small prefetch of posts in memory.
+     * Upstream failures, also those after some posts were passed on, are propagated as an
+     * {@link UpstreamFailureException}, or an {@link UpstreamUnavailableException} for a rejection.
+     */
+    @Override
+    public void forEachPost(Consumer<Post> consumer) {
+        upstreamGuard.stream(UpstreamGuard.STREAM_POSTS, webClient.get()
+                        .uri("/posts")
+                        .retrieve()
+                        .bodyToFlux(Post.class))
+                .onErrorMap(UpstreamGuard::isRejection,
+                        e -> upstreamGuard.unavailable(UpstreamGuard.STREAM_POSTS, (RuntimeException) e))
+                .doOnError(e -> logger.error("Error streaming all posts: {}", e.getMessage()))
+                .onErrorMap(e -> !(e instanceof UpstreamUnavailableException),
+                        e -> new UpstreamFailureException("Error streaming all posts: " + e.getMessage(), e))
+                .toIterable()
+                .forEach(consumer);
+    }
+
+    /**
+     * If the upstream served the previous list with an ETag, the request is made conditional
+     * and a 304 Not Modified reuses the previous list.
+     */
+    @Override
+    public CompletableFuture<List<Post>> getAllPostsAsync() {
+        return allPostsFlight.executeAsync(ALL_POSTS_KEY, () -> upstreamGuard.call(UpstreamGuard.GET_ALL_POSTS, fetchAllPosts(lastAllPosts))
+                .onErrorResume(e -> handleError(UpstreamGuard.GET_ALL_POSTS, e, "Error fetching all posts"))
+                .defaultIfEmpty(Collections.emptyList())
+                .toFuture());
+    }
+
+    @Override
+    public List<Post> findPosts(PostQuery query) {
+        return join(findPostsAsync(query));
+    }
+
+    /**
+     * Pushes the filter and page down into the upstream query; the projection is applied locally.
+     */
+    @Override
+    public CompletableFuture<List<Post>> findPostsAsync(PostQuery query) {
+        return upstreamGuard.call(UpstreamGuard.FIND_POSTS, webClient.get()
+                        .uri(builder -> builder.path("/posts").queryParams(query.toUpstreamParams()).build())
+                        .retrieve()
+                        .bodyToFlux(Post.class)
+                        .map(query::project)
+                        .collectList())
+                .onErrorResume(e -> handleError(UpstreamGuard.FIND_POSTS, e, "Error querying posts"))
+                .defaultIfEmpty(Collections.emptyList())
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Post> getPostByIdAsync(Long id) {
+        return postFlight.executeAsync(id, () -> upstreamGuard.call(UpstreamGuard.GET_POST, webClient.get()
+                        .uri("/posts/{id}", id)
+                        .retrieve()
+                        .bodyToMono(Post.class))
+                .onErrorResume(e -> handleError(UpstreamGuard.GET_POST, e, "Error fetching post with ID " + id))
+                .toFuture());
+    }
+
+    @Override
+    public CompletableFuture<Post> createPostAsync(Post post) {
+        return upstreamGuard.call(UpstreamGuard.CREATE_POST, webClient.post()
+                        .uri("/posts")
+                        .bodyValue(post)
+                        .retrieve()
+                        .toEntity(Post.class))
+                .mapNotNull(response -> response.getStatusCode() == HttpStatus.CREATED
+                        || response.getStatusCode() == HttpStatus.OK ? response.getBody() : null)
+                .onErrorResume(e -> handleError(UpstreamGuard.CREATE_POST, e, "Error creating post"))
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Post> updatePostAsync(Long id, Post post) {
+        // Ensure the ID in the path matches the ID in the post object
+        post.setId(id);
+
+        return upstreamGuard.call(UpstreamGuard.UPDATE_POST, webClient.put()
+                        .uri("/posts/{id}", id)
+                        .bodyValue(post)
+                        .retrieve()
+                        .bodyToMono(Post.class))
+                .onErrorResume(e -> handleError(UpstreamGuard.UPDATE_POST, e, "Error updating post with ID " + id))
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deletePostAsync(Long id) {
+        // JSONPlaceholder doesn't actually delete resources, but returns a 200 OK status
+        return upstreamGuard.call(UpstreamGuard.DELETE_POST, webClient.delete()
+                        .uri("/posts/{id}", id)
+                        .retrieve()
+                        .toBodilessEntity())
+                .map(response -> true)
+                .onErrorResume(e -> handleError(UpstreamGuard.DELETE_POST, e, "Error deleting post with ID " + id))
+                .defaultIfEmpty(false)
+                .toFuture();
+    }
+
+    /**
+     * Fetches all posts, conditionally on the previous list's validator.
+     *
+     * @param previous the previously fetched list
+     * @return a Mono of the current list
+     */
+    private Mono<List<Post>> fetchAllPosts(ValidatedPosts previous) {
+        return webClient.get()
+                .uri("/posts")
+                .headers(previous::addPrecondition)
+                .retrieve()
+                // Decoded element by element, so the raw body is never buffered whole
+                .toEntityFlux(Post.class)
+                .flatMap(response -> {
+                    if (response.getStatusCode() == HttpStatus.NOT_MODIFIED || response.getBody() == null) {
+                        return Mono.just(previous.getPosts());
+                    }
+                    String etag = response.getHeaders().getETag();
+                    return response.getBody().collectList().doOnNext(posts -> lastAllPosts = new ValidatedPosts(etag, posts));
+                });
+    }
+
+    /**
+     * Waits for a future and rethrows its failure unwrapped, so synchronous callers see the same
+     * exceptions as with the blocking client.
+     *
+     * @param future the future to wait for
+     * @return the result of the future
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Maps a 404 to an empty result, as it is expected and not an error.
+     * A rejection by the upstream guard fails with an {@link UpstreamUnavailableException}; any other error
+     * is logged and fails with an {@link UpstreamFailureException}.
+     *
+     * @param operation the name of the guarded operation
+     * @param e the error
+     * @param message the message to log for unexpected errors
+     * @return an empty Mono for a 404, otherwise a failed one
+     */
+    private <T> Mono<T> handleError(String operation, Throwable e, String message) {
+        if (UpstreamGuard.isRejection(e)) {
+            return Mono.error(upstreamGuard.unavailable(operation, (RuntimeException) e));
+        }
+        if (e instanceof WebClientResponseException.NotFound) {
+            return Mono.empty();
+        }
+        logger.error("{}: {}", message, e.getMessage());
+        return Mono.error(new UpstreamFailureException(message + ": " + e.getMessage(), e));
+    }
+}
@@ -3,7 +3,8 @@ package com.example.demo_junie;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// The post store would load from the real upstream, which the test must not depend on
+@SpringBootTest(properties = "posts.store.refresh-enabled=false")
 class DemoJunieApplicationTests {
 
 	@Test
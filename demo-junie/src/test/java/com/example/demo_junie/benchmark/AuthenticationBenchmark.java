@@ -0,0 +1,99 @@
+package com.example.demo_junie.benchmark;
+
+import com.example.demo_junie.model.Role;
+import com.example.demo_junie.model.User;
+import com.example.demo_junie.security.JwtAuthenticationFilter;
+import com.example.demo_junie.security.JwtConstants;
+import com.example.demo_junie.security.JwtUtils;
+import com.example.demo_junie.security.service.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * JMH benchmarks for the per-request authentication path: the JWT filter end to end
+ * (header parsing, cached claims, principal and authentication construction, security context)
+ * for a valid, a missing and a rejected token, and building a principal from a stored user.
+ *
+ * Run with {@link JmhRunner}.
+ */
+@State(Scope.Thread)
+public class AuthenticationBenchmark {
+
+    // OncePerRequestFilter marks a request as filtered with this attribute
+    private static final String ALREADY_FILTERED = JwtAuthenticationFilter.class.getName() + ".FILTERED";
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletRequest rejectedRequest;
+    private MockHttpServletResponse response;
+    private User user;
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = new JwtUtils(new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+
+        user = new User(1L, "admin", "password", "admin@example.com",
+                Arrays.asList(Role.ROLE_USER, Role.ROLE_ADMIN), true);
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+
+        String token = jwtUtils.generateJwtToken(authentication);
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/posts/1");
+        authenticatedRequest.addHeader(JwtConstants.HEADER_STRING, JwtConstants.TOKEN_PREFIX + token);
+        // A client that keeps sending a token with a bad signature
+        rejectedRequest = new MockHttpServletRequest("GET", "/api/posts/1");
+        rejectedRequest.addHeader(JwtConstants.HEADER_STRING, JwtConstants.TOKEN_PREFIX
+                + token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA"));
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/posts/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication filter_authenticated() throws ServletException, IOException {
+        return filter(authenticatedRequest);
+    }
+
+    @Benchmark
+    public Authentication filter_anonymous() throws ServletException, IOException {
+        return filter(anonymousRequest);
+    }
+
+    @Benchmark
+    public Authentication filter_rejected() throws ServletException, IOException {
+        return filter(rejectedRequest);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildUserDetails() {
+        return UserDetailsImpl.build(user);
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws ServletException, IOException {
+        request.removeAttribute(ALREADY_FILTERED);
+        filter.doFilter(request, response, CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
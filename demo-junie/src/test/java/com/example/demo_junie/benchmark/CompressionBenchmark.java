@@ -0,0 +1,141 @@
+package com.example.demo_junie.benchmark;
+
+import com.example.demo_junie.model.Post;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures what gzip response compression costs and saves for post list responses of different sizes.
+ * For each size, a list of posts with JSONPlaceholder-like lorem ipsum text is serialized as the controllers
+ * do, then compressed as Tomcat does ({@code server.compression}: gzip at the default level, only for
+ * responses of at least {@value #MIN_RESPONSE_SIZE} bytes). Reported per request: bytes on the wire without
+ * and with compression, and the CPU time of serializing, of serializing and compressing (responses below the
+ * threshold are sent uncompressed), and of decompressing on the client.
+ *
+ * Run with: {@code ./mvnw -Pbenchmark test -Dtest=CompressionBenchmark}.
+ * Results are printed and written to {@code target/benchmarks/compression.csv}.
+ */
+@Tag("benchmark")
+public class CompressionBenchmark {
+
+    // Matches server.compression.min-response-size
+    private static final int MIN_RESPONSE_SIZE = 2048;
+
+    private static final int[] POST_COUNTS = {1, 10, 100, 1000, 20000};
+
+    // Every size is measured for roughly the same amount of serialized data
+    private static final long BYTES_PER_MEASUREMENT = 64L * 1024 * 1024;
+
+    private static final String[] WORDS = ("sunt aut facere repellat provident occaecati excepturi optio reprehenderit "
+            + "quia et suscipit recusandae consequuntur expedita rerum est autem sequi nihil molestiae porro eius odio "
+            + "dolorem eum magnam quis ullam qui voluptatem fugiat nesciunt minima tempore vero aperiam").split(" ");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void compareUncompressedAndGzip() throws IOException {
+        List<String> rows = new ArrayList<>();
+        rows.add("posts,raw_bytes,wire_bytes,compressed,ratio,serialize_us,serialize_gzip_us,gunzip_us");
+
+        System.out.printf("%6s %10s %10s %10s %7s %13s %18s %10s%n", "posts", "raw bytes", "wire bytes",
+                "compressed", "ratio", "serialize us", "serialize+gzip us", "gunzip us");
+        for (int count : POST_COUNTS) {
+            List<Post> posts = posts(count);
+            byte[] json = objectMapper.writeValueAsBytes(posts);
+            boolean compressed = json.length >= MIN_RESPONSE_SIZE;
+            byte[] wire = compressed ? gzip(json) : json;
+            int iterations = (int) Math.max(20, BYTES_PER_MEASUREMENT / json.length);
+
+            // Warm up the JIT for this size before measuring
+            measure(iterations / 4, () -> gzip(objectMapper.writeValueAsBytes(posts)));
+
+            double serializeUs = measure(iterations, () -> objectMapper.writeValueAsBytes(posts));
+            double serializeGzipUs = compressed
+                    ? measure(iterations, () -> gzip(objectMapper.writeValueAsBytes(posts)))
+                    : serializeUs;
+            byte[] gzipped = gzip(json);
+            double gunzipUs = compressed ? measure(iterations, () -> gunzip(gzipped)) : 0;
+
+            double ratio = (double) wire.length / json.length;
+            rows.add(String.format("%d,%d,%d,%b,%.3f,%.2f,%.2f,%.2f",
+                    count, json.length, wire.length, compressed, ratio, serializeUs, serializeGzipUs, gunzipUs));
+            System.out.printf("%6d %10d %10d %10b %7.3f %13.2f %18.2f %10.2f%n",
+                    count, json.length, wire.length, compressed, ratio, serializeUs, serializeGzipUs, gunzipUs);
+        }
+
+        Path output = Path.of("target", "benchmarks", "compression.csv");
+        Files.createDirectories(output.getParent());
+        Files.write(output, rows);
+    }
+
+    /**
+     * Runs a task repeatedly and returns the mean CPU time of the calling thread per run.
+     *
+     * @param iterations the number of runs
+     * @param task the task to run
+     * @return the mean CPU time per run in microseconds
+     */
+    private double measure(int iterations, IoTask task) throws IOException {
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return (threads.getCurrentThreadCpuTime() - start) / 1000.0 / iterations;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static List<Post> posts(int count) {
+        Random random = new Random(42);
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            posts.add(new Post((long) i, (long) (i - 1) / 10 + 1, sentence(random, 6), sentence(random, 30)));
+        }
+        return posts;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(i % 8 == 0 ? '\n' : ' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    @FunctionalInterface
+    private interface IoTask {
+        Object run() throws IOException;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo_junie.benchmark;
+
+import com.example.demo_junie.model.Post;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the JSONPlaceholder API, for load tests and benchmarks.
+ * It serves the {@code /posts} resources the application uses (list with {@code userId}, {@code _page}
+ * and {@code _limit}, get, create, update and delete) from generated posts, with a weak ETag on the full list.
+ * Every response is delayed by the configured latency plus a random jitter, and fails with a
+ * 503 Service Unavailable with the configured probability.
+ */
+public class FakeJsonPlaceholder implements AutoCloseable {
+
+    private static final int POSTS_PER_USER = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Post> posts;
+    private final byte[] allPostsJson;
+    private final String allPostsETag;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    /**
+     * Starts the stand-in on an ephemeral local port.
+     *
+     * @param postCount the number of posts to serve, ten per user
+     * @param latencyMs the minimum delay of every response
+     * @param latencyJitterMs the maximum random delay added to the minimum
+     * @param errorRate the probability, between 0 and 1, that a request fails with a 503
+     * @throws IOException if the server cannot be started
+     */
+    public FakeJsonPlaceholder(int postCount, long latencyMs, long latencyJitterMs, double errorRate) throws IOException {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.errorRate = errorRate;
+
+        posts = new ArrayList<>(postCount);
+        for (int i = 1; i <= postCount; i++) {
+            posts.add(new Post((long) i, (long) (i - 1) / POSTS_PER_USER + 1,
+                    "sunt aut facere repellat provident occaecati excepturi optio " + i,
+                    "quia et suscipit suscipit recusandae consequuntur expedita et cum reprehenderit molestiae "
+                            + "ut ut quas totam nostrum rerum est autem sunt rem eveniet architecto " + i));
+        }
+        allPostsJson = objectMapper.writeValueAsBytes(posts);
+        allPostsETag = "W/\"" + Integer.toHexString(posts.hashCode()) + "\"";
+
+        // Requests sleep for the injected latency, so the pool grows with the offered load
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/posts", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return the base URL to configure as {@code jsonplaceholder.api.base-url}
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of requests received so far
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of requests answered with an injected 503 so far
+     */
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            delay();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            Long id = parseId(exchange.getRequestURI());
+            if (id == null) {
+                if ("GET".equals(method)) {
+                    list(exchange);
+                } else if ("POST".equals(method)) {
+                    Post created = objectMapper.readValue(exchange.getRequestBody(), Post.class);
+                    created.setId((long) posts.size() + 1);
+                    send(exchange, 201, objectMapper.writeValueAsBytes(created));
+                } else {
+                    exchange.sendResponseHeaders(405, -1);
+                }
+                return;
+            }
+
+            if (id < 1 || id > posts.size()) {
+                send(exchange, 404, "{}".getBytes());
+            } else if ("GET".equals(method)) {
+                send(exchange, 200, objectMapper.writeValueAsBytes(posts.get((int) (id - 1))));
+            } else if ("PUT".equals(method)) {
+                Post updated = objectMapper.readValue(exchange.getRequestBody(), Post.class);
+                updated.setId(id);
+                send(exchange, 200, objectMapper.writeValueAsBytes(updated));
+            } else if ("DELETE".equals(method)) {
+                send(exchange, 200, "{}".getBytes());
+            } else {
+                exchange.sendResponseHeaders(405, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void list(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parseQuery(exchange.getRequestURI());
+        if (params.isEmpty()) {
+            exchange.getResponseHeaders().add("ETag", allPostsETag);
+            if (allPostsETag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                send(exchange, 200, allPostsJson);
+            }
+            return;
+        }
+
+        List<Post> matching = posts;
+        if (params.containsKey("userId")) {
+            long userId = Long.parseLong(params.get("userId"));
+            matching = matching.stream().filter(post -> post.getUserId() == userId).toList();
+        }
+        if (params.containsKey("_limit")) {
+            int limit = Integer.parseInt(params.get("_limit"));
+            int page = Integer.parseInt(params.getOrDefault("_page", "1"));
+            int from = Math.min((page - 1) * limit, matching.size());
+            matching = matching.subList(from, Math.min(from + limit, matching.size()));
+        }
+        send(exchange, 200, objectMapper.writeValueAsBytes(matching));
+    }
+
+    private void delay() {
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Long parseId(URI uri) {
+        String path = uri.getPath();
+        int slash = path.indexOf('/', 1);
+        if (slash < 0 || slash == path.length() - 1) {
+            return null;
+        }
+        try {
+            return Long.parseLong(path.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo_junie.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the JMH microbenchmarks ({@link JwtBenchmark}, {@link AuthenticationBenchmark},
+ * {@link PublicPathBenchmark}, {@link PostSerializationBenchmark}) and writes the results as JSON,
+ * in JMH's standard result format, so runs of different commits can be compared with any JMH result viewer or diff tool.
+ *
+ * Run with: {@code ./mvnw -Pbenchmark test -Dtest=JmhRunner}.
+ * Optional system properties: {@code jmh.include} (a regular expression selecting benchmarks, default all),
+ * {@code jmh.forks}, {@code jmh.iterations}, {@code jmh.result} (default {@code target/benchmarks/jmh.json}),
+ * and {@code jmh.profilers}, a comma-separated list of JMH profilers; {@code -Djmh.profilers=gc} adds
+ * allocation rates and bytes per operation ({@code gc.alloc.rate.norm}) to the results.
+ */
+@Tag("benchmark")
+public class JmhRunner {
+
+    @Test
+    public void runBenchmarks() throws RunnerException, IOException {
+        Path result = Path.of(System.getProperty("jmh.result", "target/benchmarks/jmh.json"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        int iterations = Integer.getInteger("jmh.iterations", 5);
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include",
+                        "(JwtBenchmark|AuthenticationBenchmark|PublicPathBenchmark|PostSerializationBenchmark)\\."))
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .warmupIterations(iterations)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(iterations)
+                .measurementTime(TimeValue.seconds(1))
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .mode(Mode.AverageTime)
+                .shouldFailOnError(true)
+                .result(result.toString())
+                .resultFormat(ResultFormatType.JSON);
+        for (String profiler : System.getProperty("jmh.profilers", "").split(",")) {
+            if (!profiler.isBlank()) {
+                options.addProfiler(profiler.trim());
+            }
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo_junie.benchmark;
+
+import com.example.demo_junie.model.Role;
+import com.example.demo_junie.model.User;
+import com.example.demo_junie.security.JwtConstants;
+import com.example.demo_junie.security.JwtUtils;
+import com.example.demo_junie.security.service.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.Collections;
+
+/**
+ * JMH benchmarks for the JwtUtils operations performed on login and on every authenticated request.
+ * Validation is measured both for a token whose claims are cached (the common case: a client reuses its token)
+ * and for tokens that miss the claims cache and need a full signature check.
+ *
+ * Run with {@link JmhRunner}.
+ */
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    // Twice the claims cache size, so cycling through them keeps missing the cache
+    private static final int UNCACHED_TOKENS = (int) JwtConstants.CLAIMS_CACHE_MAX_SIZE * 2;
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+    private String[] uncachedTokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils(new SimpleMeterRegistry());
+        authentication = authentication("admin");
+        token = jwtUtils.generateJwtToken(authentication);
+        jwtUtils.validateJwtToken(token);
+
+        uncachedTokens = new String[UNCACHED_TOKENS];
+        for (int i = 0; i < UNCACHED_TOKENS; i++) {
+            uncachedTokens[i] = jwtUtils.generateJwtToken(authentication("user" + i));
+        }
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken_cached() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken_uncached() {
+        String uncached = uncachedTokens[next];
+        next = (next + 1) % UNCACHED_TOKENS;
+        return jwtUtils.validateJwtToken(uncached);
+    }
+
+    @Benchmark
+    public String getUsernameFromJwtToken() {
+        return jwtUtils.getUsernameFromJwtToken(token);
+    }
+
+    private static Authentication authentication(String username) {
+        UserDetailsImpl userDetails = UserDetailsImpl.build(new User(
+                1L, username, "password", username + "@example.com", Collections.singletonList(Role.ROLE_USER), true));
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+}
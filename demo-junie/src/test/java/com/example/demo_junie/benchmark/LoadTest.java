@@ -0,0 +1,314 @@
+package com.example.demo_junie.benchmark;
+
+import com.example.demo_junie.security.JwtUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: boots the application on a random port against a {@link FakeJsonPlaceholder}
+ * and drives it over HTTP with a mixed workload of reads, admin writes and logins, so the whole path
+ * (Tomcat, security filter chain, controllers, caches and the upstream client) is measured.
+ * Each client sends requests back to back; after a warm-up phase, throughput and p50/p99/p99.9 latency
+ * are reported per operation and overall.
+ *
+ * Run with: {@code ./mvnw -Pbenchmark test -Dtest=LoadTest}.
+ * Optional system properties: {@code load.clients} (default 32), {@code load.warmup-seconds} (10),
+ * {@code load.duration-seconds} (30), {@code load.upstream.posts} (100), {@code load.upstream.latency-ms} (20),
+ * {@code load.upstream.jitter-ms} (10) and {@code load.upstream.error-rate} (0.0).
+ * Application properties can be overridden the same way, e.g. {@code -Djsonplaceholder.api.client=reactive}.
+ * Results are printed and written to {@code target/benchmarks/load-test.csv}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30));
+    private static final int UPSTREAM_POSTS = Integer.getInteger("load.upstream.posts", 100);
+
+    // Registered at the start of the test and used by the login operations
+    private static final String LOGIN_USERNAME = "loadtest";
+    private static final String LOGIN_PASSWORD = "loadtest123";
+
+    private static final String[] SEARCH_TERMS = {"facere", "suscipit", "architecto", "molestiae optio", "rerum"};
+
+    private static FakeJsonPlaceholder upstream;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * The operations of the workload, with their relative weights.
+     */
+    private enum Operation {
+        LIST_PAGE(25),
+        GET_POST(35),
+        SEARCH(10),
+        USER_POSTS(10),
+        CREATE(5),
+        UPDATE(5),
+        DELETE(3),
+        LOGIN(7);
+
+        private static final int TOTAL_WEIGHT = Arrays.stream(values()).mapToInt(operation -> operation.weight).sum();
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(ThreadLocalRandom random) {
+            int roll = random.nextInt(TOTAL_WEIGHT);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    @DynamicPropertySource
+    public static void upstreamProperties(DynamicPropertyRegistry registry) throws IOException {
+        upstream = new FakeJsonPlaceholder(UPSTREAM_POSTS,
+                Long.getLong("load.upstream.latency-ms", 20),
+                Long.getLong("load.upstream.jitter-ms", 10),
+                Double.parseDouble(System.getProperty("load.upstream.error-rate", "0")));
+        registry.add("jsonplaceholder.api.base-url", upstream::getBaseUrl);
+    }
+
+    @AfterAll
+    public static void stopUpstream() {
+        if (upstream != null) {
+            upstream.close();
+        }
+    }
+
+    @Test
+    public void mixedWorkload() throws Exception {
+        // Writes need the admin role; its token is issued directly, since registered users only get ROLE_USER
+        UserDetails admin = userDetailsService.loadUserByUsername("admin");
+        String adminToken = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+        register();
+
+        runPhase(adminToken, WARMUP);
+        long upstreamRequestsBefore = upstream.getRequests();
+        Map<Operation, Latencies> results = runPhase(adminToken, DURATION);
+        long upstreamRequests = upstream.getRequests() - upstreamRequestsBefore;
+
+        List<String> rows = new ArrayList<>();
+        rows.add("operation,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms");
+        System.out.printf("%d clients, %d s, upstream: %d posts, %d requests, %d injected errors%n",
+                CLIENTS, DURATION.toSeconds(), UPSTREAM_POSTS, upstreamRequests, upstream.getInjectedErrors());
+        System.out.printf("%-10s %9s %7s %12s %9s %9s %9s%n",
+                "operation", "requests", "errors", "throughput/s", "p50 ms", "p99 ms", "p99.9 ms");
+        Latencies total = new Latencies();
+        for (Map.Entry<Operation, Latencies> entry : results.entrySet()) {
+            report(entry.getKey().name(), entry.getValue(), rows);
+            total.addAll(entry.getValue());
+        }
+        report("TOTAL", total, rows);
+
+        Path output = Path.of("target", "benchmarks", "load-test.csv");
+        Files.createDirectories(output.getParent());
+        Files.write(output, rows);
+
+        assertTrue(total.size > 0, "No requests completed");
+    }
+
+    /**
+     * Runs the workload with all clients for the given duration.
+     *
+     * @param adminToken the token used for reads and writes
+     * @param duration how long each client keeps sending requests
+     * @return the latencies of all clients, per operation
+     */
+    private Map<Operation, Latencies> runPhase(String adminToken, Duration duration) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Future<Map<Operation, Latencies>>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> runClient(adminToken, deadline)));
+            }
+
+            Map<Operation, Latencies> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, Latencies>> future : futures) {
+                future.get().forEach((operation, latencies) ->
+                        merged.computeIfAbsent(operation, o -> new Latencies()).addAll(latencies));
+            }
+            return merged;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private Map<Operation, Latencies> runClient(String adminToken, long deadline) {
+        Map<Operation, Latencies> latencies = new EnumMap<>(Operation.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = Operation.pick(random);
+            HttpRequest request = request(operation, adminToken, random);
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok = status < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            latencies.computeIfAbsent(operation, o -> new Latencies()).add(System.nanoTime() - start, ok);
+        }
+        return latencies;
+    }
+
+    private HttpRequest request(Operation operation, String adminToken, ThreadLocalRandom random) {
+        long id = random.nextLong(1, UPSTREAM_POSTS + 1);
+        String post = "{\"userId\":1,\"title\":\"Load test\",\"body\":\"Created by the load test\"}";
+        return switch (operation) {
+            case LIST_PAGE -> get("/api/posts?page=" + random.nextInt(1, Math.max(UPSTREAM_POSTS / 10, 1) + 1)
+                    + "&size=10", adminToken);
+            case GET_POST -> get("/api/posts/" + id, adminToken);
+            case SEARCH -> get("/api/posts/search?q="
+                    + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "+"), adminToken);
+            case USER_POSTS -> get("/api/users/" + random.nextLong(1, UPSTREAM_POSTS / 10 + 2) + "/posts", adminToken);
+            case CREATE -> authorized("/api/posts", adminToken)
+                    .POST(HttpRequest.BodyPublishers.ofString(post)).build();
+            case UPDATE -> authorized("/api/posts/" + id, adminToken)
+                    .PUT(HttpRequest.BodyPublishers.ofString(post)).build();
+            case DELETE -> authorized("/api/posts/" + id, adminToken).DELETE().build();
+            case LOGIN -> loginRequest(LOGIN_USERNAME, LOGIN_PASSWORD);
+        };
+    }
+
+    private HttpRequest get(String path, String token) {
+        return authorized(path, token).GET().build();
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                // As browsers and most HTTP clients do, so response compression is part of the measurement
+                .header("Accept-Encoding", "gzip");
+    }
+
+    private HttpRequest loginRequest(String username, String password) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+    }
+
+    private void register() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + LOGIN_USERNAME
+                        + "\",\"password\":\"" + LOGIN_PASSWORD + "\",\"email\":\"loadtest@example.com\"}"))
+                .build();
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Registration failed with status " + status);
+        }
+    }
+
+    private void report(String name, Latencies latencies, List<String> rows) {
+        long[] sorted = Arrays.copyOf(latencies.values, latencies.size);
+        Arrays.sort(sorted);
+        double throughput = latencies.size / (double) DURATION.toSeconds();
+        double p50 = percentileMs(sorted, 0.50);
+        double p99 = percentileMs(sorted, 0.99);
+        double p999 = percentileMs(sorted, 0.999);
+        rows.add(String.format("%s,%d,%d,%.1f,%.2f,%.2f,%.2f",
+                name, latencies.size, latencies.errors, throughput, p50, p99, p999));
+        System.out.printf("%-10s %9d %7d %12.1f %9.2f %9.2f %9.2f%n",
+                name, latencies.size, latencies.errors, throughput, p50, p99, p999);
+    }
+
+    private static double percentileMs(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * A growable array of request latencies in nanoseconds, with an error count; used by one client thread at a time.
+     */
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+        private int size;
+        private int errors;
+
+        void add(long nanos, boolean ok) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Latencies other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, values.length * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+}
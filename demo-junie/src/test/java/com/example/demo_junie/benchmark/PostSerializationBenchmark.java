@@ -0,0 +1,56 @@
+package com.example.demo_junie.benchmark;
+
+import com.example.demo_junie.model.Post;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JMH benchmarks for Jackson serialization and deserialization of post lists,
+ * from a single page up to the size of a full upstream listing.
+ *
+ * Run with {@link JmhRunner}.
+ */
+@State(Scope.Benchmark)
+public class PostSerializationBenchmark {
+
+    private static final TypeReference<List<Post>> POST_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "100", "1000", "20000"})
+    public int posts;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Post> list;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        list = new ArrayList<>(posts);
+        for (int i = 1; i <= posts; i++) {
+            list.add(new Post((long) i, (long) (i - 1) / 10 + 1,
+                    "sunt aut facere repellat provident occaecati excepturi " + i,
+                    "quia et suscipit\nsuscipit recusandae consequuntur expedita et cum\n"
+                            + "reprehenderit molestiae ut ut quas totam\nnostrum rerum est autem sunt rem " + i));
+        }
+        json = objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public List<Post> deserialize() throws IOException {
+        return objectMapper.readValue(json, POST_LIST);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo_junie.benchmark;
+
+import com.example.demo_junie.controller.ApiDocumentationController;
+import com.example.demo_junie.model.Role;
+import com.example.demo_junie.model.User;
+import com.example.demo_junie.security.JwtAuthenticationFilter;
+import com.example.demo_junie.security.JwtConstants;
+import com.example.demo_junie.security.JwtUtils;
+import com.example.demo_junie.security.service.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JMH benchmark for the JWT filter on mixed traffic from a client that sends its token with every
+ * request, as browser apps and the Swagger UI do: half the requests go to protected post endpoints,
+ * the other half to public documentation, Swagger UI and authentication paths.
+ * The docs benchmarks compare encoding and compressing the documentation page per request, as the
+ * servlet container does for a String body, with serving the controller's pre-encoded bytes.
+ *
+ * Run with {@link JmhRunner}.
+ */
+@State(Scope.Thread)
+public class PublicPathBenchmark {
+
+    // OncePerRequestFilter marks a request as filtered with this attribute
+    private static final String ALREADY_FILTERED = JwtAuthenticationFilter.class.getName() + ".FILTERED";
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private static final String[] PATHS = {
+            "/api/posts/1", "/api-docs",
+            "/api/posts", "/swagger-ui/index.html",
+            "/api/posts/search", "/v3/api-docs/swagger-config",
+            "/api/users/1/posts", "/api/auth/login"
+    };
+
+    private final ApiDocumentationController docsController = new ApiDocumentationController();
+
+    private JwtAuthenticationFilter filter;
+    private String docsHtml;
+    private MockHttpServletRequest[] requests;
+    private MockHttpServletResponse response;
+    private int next;
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = new JwtUtils(new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+
+        UserDetailsImpl userDetails = UserDetailsImpl.build(new User(
+                1L, "user", "password", "user@example.com", Collections.singletonList(Role.ROLE_USER), true));
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+        requests = new MockHttpServletRequest[PATHS.length];
+        for (int i = 0; i < PATHS.length; i++) {
+            requests[i] = new MockHttpServletRequest("GET", PATHS[i]);
+            requests[i].addHeader(JwtConstants.HEADER_STRING, JwtConstants.TOKEN_PREFIX + token);
+        }
+        response = new MockHttpServletResponse();
+        docsHtml = new String(docsController.getApiDocumentation(null, null).getBody(), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Authentication filter_mixedTraffic() throws ServletException, IOException {
+        MockHttpServletRequest request = requests[next];
+        next = (next + 1) % requests.length;
+
+        request.removeAttribute(ALREADY_FILTERED);
+        filter.doFilter(request, response, CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public byte[] docs_encodePerRequest() throws IOException {
+        byte[] html = docsHtml.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(html);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> docs_preEncoded() {
+        return docsController.getApiDocumentation(null, "gzip, deflate, br");
+    }
+}
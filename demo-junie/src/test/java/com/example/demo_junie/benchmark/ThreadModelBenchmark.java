@@ -0,0 +1,369 @@
+package com.example.demo_junie.benchmark;
+
+import com.example.demo_junie.DemoJunieApplication;
+import com.example.demo_junie.security.JwtUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares Tomcat's platform thread pool with virtual threads ({@code spring.threads.virtual.enabled})
+ * on the application's real request path. For each model the application is booted against a
+ * {@link FakeJsonPlaceholder} with a fixed latency and driven over HTTP by closed-loop clients at
+ * increasing concurrency levels, so Tomcat, the security filter chain, the RestTemplate and its
+ * HttpClient5 connection pool, BCrypt and the synchronized post store writes are all part of the measurement.
+ * The workload is mostly post reads with the post cache disabled, so each one makes a blocking upstream
+ * call, plus admin updates and logins. Everything else runs with the application's defaults, so limits
+ * such as the upstream connection pool and the password hashing pool apply to both models alike.
+ *
+ * Run with: {@code ./mvnw -Pjava21,benchmark test -Dtest=ThreadModelBenchmark} (requires a Java 21 JDK).
+ * Optional system properties: {@code threads.duration-seconds} (default 10) per level and
+ * {@code threads.upstream.latency-ms} (50).
+ * Results are printed and written to {@code target/benchmarks/thread-model.csv}.
+ */
+@Tag("benchmark")
+public class ThreadModelBenchmark {
+
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("threads.duration-seconds", 10));
+    private static final long UPSTREAM_LATENCY_MS = Long.getLong("threads.upstream.latency-ms", 50);
+    private static final int UPSTREAM_POSTS = 1000;
+    private static final int[] CONCURRENCY_LEVELS = {50, 100, 200, 400, 800};
+
+    // A level is sustainable while post reads succeed and their p99 stays within four times the upstream latency
+    private static final double SUSTAINABLE_P99_MS = UPSTREAM_LATENCY_MS * 4.0;
+
+    private static final String LOGIN_USERNAME = "threads";
+    private static final String LOGIN_PASSWORD = "threads123";
+
+    private static FakeJsonPlaceholder upstream;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * The operations of the workload, with their relative weights.
+     */
+    private enum Operation {
+        GET_POST(85),
+        UPDATE(10),
+        LOGIN(5);
+
+        private static final int TOTAL_WEIGHT = Arrays.stream(values()).mapToInt(operation -> operation.weight).sum();
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(ThreadLocalRandom random) {
+            int roll = random.nextInt(TOTAL_WEIGHT);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    @BeforeAll
+    public static void startUpstream() throws IOException {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require Java 21");
+
+        // Avoid Nagle/delayed-ACK stalls in the JDK server behind the stand-in
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        upstream = new FakeJsonPlaceholder(UPSTREAM_POSTS, UPSTREAM_LATENCY_MS, 0, 0);
+    }
+
+    @AfterAll
+    public static void stopUpstream() {
+        if (upstream != null) {
+            upstream.close();
+        }
+    }
+
+    @Test
+    public void comparePlatformAndVirtualThreads() throws Exception {
+        List<String> rows = new ArrayList<>();
+        rows.add("model,concurrency,throughput_rps,get_p50_ms,get_p99_ms,update_p99_ms,login_p99_ms,errors");
+
+        System.out.printf("%-9s %11s %12s %9s %9s %12s %11s %7s%n", "model", "concurrency", "throughput/s",
+                "get p50", "get p99", "update p99", "login p99", "errors");
+        int maxPlatform = runModel("platform", false, rows);
+        int maxVirtual = runModel("virtual", true, rows);
+
+        System.out.printf("Max sustainable concurrency (post read p99 <= %.0f ms, no errors): platform=%d, virtual=%d%n",
+                SUSTAINABLE_P99_MS, maxPlatform, maxVirtual);
+
+        Path output = Path.of("target", "benchmarks", "thread-model.csv");
+        Files.createDirectories(output.getParent());
+        Files.write(output, rows);
+    }
+
+    /**
+     * Boots the application with one thread model and runs all concurrency levels against it.
+     *
+     * @param model the name of the model in the results
+     * @param virtualThreads whether Tomcat serves requests on virtual threads
+     * @param rows the CSV rows to append to
+     * @return the highest sustainable concurrency level, or 0 if none was
+     */
+    private int runModel(String model, boolean virtualThreads, List<String> rows) throws Exception {
+        // Command-line arguments take precedence over the system property set by the java21 profile
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoJunieApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--jsonplaceholder.api.base-url=" + upstream.getBaseUrl(),
+                "--posts.cache.max-size=0")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            awaitReady(baseUrl);
+            register(baseUrl);
+            UserDetails admin = context.getBean(UserDetailsService.class).loadUserByUsername("admin");
+            String adminToken = context.getBean(JwtUtils.class).generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+
+            // Warm up connections and JIT
+            runLevel(baseUrl, adminToken, CONCURRENCY_LEVELS[0]);
+
+            int maxSustainable = 0;
+            for (int concurrency : CONCURRENCY_LEVELS) {
+                Result result = runLevel(baseUrl, adminToken, concurrency);
+                rows.add(result.toCsv(model, concurrency));
+                result.print(model, concurrency);
+                if (result.isSustainable()) {
+                    maxSustainable = concurrency;
+                }
+            }
+            return maxSustainable;
+        }
+    }
+
+    /**
+     * Runs one concurrency level: each client sends requests back to back for the configured duration.
+     *
+     * @param baseUrl the base URL of the application
+     * @param adminToken the token used for reads and updates
+     * @param concurrency the number of concurrent clients
+     * @return the measured throughput, latency percentiles and errors
+     */
+    private Result runLevel(String baseUrl, String adminToken, int concurrency) throws InterruptedException {
+        Latencies[][] latencies = new Latencies[concurrency][];
+        CountDownLatch done = new CountDownLatch(concurrency);
+        VirtualThreadTaskExecutor clients = new VirtualThreadTaskExecutor("client-");
+
+        long start = System.nanoTime();
+        long deadline = start + DURATION.toNanos();
+        for (int c = 0; c < concurrency; c++) {
+            int client = c;
+            clients.execute(() -> {
+                try {
+                    latencies[client] = runClient(baseUrl, adminToken, deadline);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await(DURATION.toSeconds() + 60, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Latencies[] merged = new Latencies[Operation.values().length];
+        for (int o = 0; o < merged.length; o++) {
+            merged[o] = new Latencies();
+        }
+        for (Latencies[] clientLatencies : latencies) {
+            if (clientLatencies == null) {
+                continue;
+            }
+            for (int o = 0; o < merged.length; o++) {
+                merged[o].addAll(clientLatencies[o]);
+            }
+        }
+        return new Result(merged, elapsedSeconds);
+    }
+
+    private Latencies[] runClient(String baseUrl, String adminToken, long deadline) {
+        Latencies[] latencies = new Latencies[Operation.values().length];
+        for (int o = 0; o < latencies.length; o++) {
+            latencies[o] = new Latencies();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = Operation.pick(random);
+            HttpRequest request = request(baseUrl, operation, adminToken, random);
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            latencies[operation.ordinal()].add(System.nanoTime() - start, ok);
+        }
+        return latencies;
+    }
+
+    private HttpRequest request(String baseUrl, Operation operation, String adminToken, ThreadLocalRandom random) {
+        long id = random.nextLong(1, UPSTREAM_POSTS + 1);
+        return switch (operation) {
+            case GET_POST -> authorized(baseUrl + "/api/posts/" + id, adminToken).GET().build();
+            case UPDATE -> authorized(baseUrl + "/api/posts/" + id, adminToken)
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"userId\":1,\"title\":\"Thread model\",\"body\":\"Updated by the benchmark\"}"))
+                    .build();
+            case LOGIN -> post(baseUrl + "/api/auth/login",
+                    "{\"username\":\"" + LOGIN_USERNAME + "\",\"password\":\"" + LOGIN_PASSWORD + "\"}");
+        };
+    }
+
+    private HttpRequest.Builder authorized(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Waits until the readiness probe reports the application ready, i.e. the post store is loaded.
+     */
+    private void awaitReady(String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Application did not become ready");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private void register(String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = post(baseUrl + "/api/auth/register", "{\"username\":\"" + LOGIN_USERNAME
+                + "\",\"password\":\"" + LOGIN_PASSWORD + "\",\"email\":\"threads@example.com\"}");
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Registration failed with status " + status);
+        }
+    }
+
+    private static double percentileMs(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * The outcome of one concurrency level, per operation.
+     */
+    private static final class Result {
+
+        private final double throughput;
+        private final long[][] sorted;
+        private final int errors;
+        private final int getErrors;
+
+        Result(Latencies[] latencies, double elapsedSeconds) {
+            sorted = new long[latencies.length][];
+            int requests = 0;
+            int allErrors = 0;
+            for (int o = 0; o < latencies.length; o++) {
+                sorted[o] = Arrays.copyOf(latencies[o].values, latencies[o].size);
+                Arrays.sort(sorted[o]);
+                requests += latencies[o].size;
+                allErrors += latencies[o].errors;
+            }
+            throughput = requests / elapsedSeconds;
+            errors = allErrors;
+            getErrors = latencies[Operation.GET_POST.ordinal()].errors;
+        }
+
+        double p(Operation operation, double percentile) {
+            return percentileMs(sorted[operation.ordinal()], percentile);
+        }
+
+        boolean isSustainable() {
+            return getErrors == 0 && p(Operation.GET_POST, 0.99) <= SUSTAINABLE_P99_MS;
+        }
+
+        String toCsv(String model, int concurrency) {
+            return String.format("%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%d", model, concurrency, throughput,
+                    p(Operation.GET_POST, 0.50), p(Operation.GET_POST, 0.99),
+                    p(Operation.UPDATE, 0.99), p(Operation.LOGIN, 0.99), errors);
+        }
+
+        void print(String model, int concurrency) {
+            System.out.printf("%-9s %11d %12.1f %9.2f %9.2f %12.2f %11.2f %7d%n", model, concurrency, throughput,
+                    p(Operation.GET_POST, 0.50), p(Operation.GET_POST, 0.99),
+                    p(Operation.UPDATE, 0.99), p(Operation.LOGIN, 0.99), errors);
+        }
+    }
+
+    /**
+     * A growable array of request latencies in nanoseconds, with an error count; used by one client thread at a time.
+     */
+    private static final class Latencies {
+
+        private long[] values = new long[256];
+        private int size;
+        private int errors;
+
+        void add(long nanos, boolean ok) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Latencies other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, values.length * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo_junie.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ApiDocumentationController class.
+ */
+public class ApiDocumentationControllerTest {
+
+    private final ApiDocumentationController controller = new ApiDocumentationController();
+
+    @Test
+    public void testGetApiDocumentation_Gzip() throws IOException {
+        // Arrange
+        ResponseEntity<byte[]> plain = controller.getApiDocumentation(null, null);
+
+        // Act
+        ResponseEntity<byte[]> gzipped = controller.getApiDocumentation(null, "gzip, deflate, br");
+
+        // Assert
+        assertEquals(HttpStatus.OK, plain.getStatusCode());
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(plain.getHeaders().getETag(), gzipped.getHeaders().getETag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+        assertNull(controller.getApiDocumentation(null, "gzip;q=0, identity")
+                .getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testGetApiDocumentation_NotModified() {
+        // Arrange
+        String etag = controller.getApiDocumentation(null, null).getHeaders().getETag();
+
+        // Act
+        ResponseEntity<byte[]> response = controller.getApiDocumentation(etag, "gzip");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+}
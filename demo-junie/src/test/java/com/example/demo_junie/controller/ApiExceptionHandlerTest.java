@@ -0,0 +1,152 @@
+package com.example.demo_junie.controller;
+
+import com.example.demo_junie.model.Post;
+import com.example.demo_junie.service.BatchCapacityExceededException;
+import com.example.demo_junie.service.CachingPostService;
+import com.example.demo_junie.service.PostBatchService;
+import com.example.demo_junie.service.PostServiceImpl;
+import com.example.demo_junie.service.PostStore;
+import com.example.demo_junie.service.UpstreamGuard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the ApiExceptionHandler class: invalid query parameters, and requests whose upstream call
+ * is rejected by a full bulkhead or fails, through the controller, the caching service and the blocking upstream client.
+ */
+public class ApiExceptionHandlerTest {
+
+    private final UpstreamGuard upstreamGuard = new UpstreamGuard(new SimpleMeterRegistry(),
+            50, 100, Duration.ofSeconds(2), 4, 4, Duration.ofMinutes(1), 1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private RestTemplate restTemplate;
+    private PostStore postStore;
+    private CachingPostService postService;
+    private PostBatchService postBatchService;
+    private MockMvc mockMvc;
+    private Thread inFlight;
+
+    @BeforeEach
+    public void setup() throws InterruptedException {
+        restTemplate = mock(RestTemplate.class);
+        PostServiceImpl upstream = new PostServiceImpl(restTemplate, new ObjectMapper(), "http://upstream", upstreamGuard);
+        postStore = new PostStore(upstream, Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+        postService = new CachingPostService(upstream, postStore, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5), 100, 2, 10);
+        postBatchService = new PostBatchService(postService, 2, 10, 20);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PostController(postService, postBatchService, new ObjectMapper()))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+
+        // Occupy the only slot of the getPostById bulkhead
+        CountDownLatch started = new CountDownLatch(1);
+        inFlight = new Thread(() -> upstreamGuard.call(UpstreamGuard.GET_POST, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        inFlight.start();
+        started.await();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        inFlight.join();
+        postBatchService.destroy();
+        postService.destroy();
+    }
+
+    @Test
+    public void testGetAllPosts_InvalidQuery() throws Exception {
+        mockMvc.perform(get("/api/posts").param("page", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error: page must be at least 1"));
+    }
+
+    @Test
+    public void testGetPostById_BulkheadFull() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/posts/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    public void testGetPostById_BulkheadFullServedFromStore() throws Exception {
+        // Arrange
+        postStore.replaceAll(Collections.singletonList(new Post(1L, 1L, "Title", "Body")));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/posts/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Title"));
+    }
+
+    @Test
+    public void testGetAllPosts_UpstreamFails() throws Exception {
+        // Arrange
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(Post[].class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/posts"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadGateway())
+                .andExpect(content().string("Error: Upstream service failed, please try again later"));
+    }
+
+    @Test
+    public void testBatchCapacityExceeded() {
+        // Act
+        ResponseEntity<String> response = new ApiExceptionHandler().handleBatchCapacityExceeded(
+                new BatchCapacityExceededException("Batch capacity exhausted", Duration.ofMillis(1500)));
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo_junie.controller;
+
+import com.example.demo_junie.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ETags class.
+ */
+public class ETagsTest {
+
+    @Test
+    public void testOf_ChangesWithContent() {
+        // Arrange
+        Post post = new Post(1L, 1L, "Title", "Body");
+        String before = ETags.of(post);
+        List<Post> list = Arrays.asList(post, new Post(2L, 1L, "Other", "Body"));
+        String listBefore = ETags.of(list);
+
+        // Act
+        post.setTitle("New title");
+
+        // Assert
+        assertEquals(before, ETags.of(new Post(1L, 1L, "Title", "Body")));
+        assertNotEquals(before, ETags.of(post));
+        assertNotEquals(listBefore, ETags.of(list));
+        assertNotEquals(ETags.of(list), ETags.of(Arrays.asList(list.get(1), list.get(0))));
+    }
+
+    @Test
+    public void testMatches() {
+        String etag = "\"1a2b\"";
+
+        assertTrue(ETags.matches(etag, etag));
+        assertTrue(ETags.matches("W/\"1a2b\"", etag));
+        assertTrue(ETags.matches("\"ffff\", \"1a2b\"", etag));
+        assertTrue(ETags.matches("*", etag));
+        assertTrue(ETags.matches(etag, "W/" + etag));
+        assertFalse(ETags.matches("\"ffff\"", etag));
+        assertFalse(ETags.matches(null, etag));
+    }
+}
@@ -1,19 +1,30 @@
 package com.example.demo_junie.controller;
 
+import com.example.demo_junie.model.InvalidPostQueryException;
 import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
 import com.example.demo_junie.service.PostService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,9 +34,13 @@ import static org.mockito.Mockito.*;
  */
 public class PostControllerTest {
 
-    @Mock
+    // Real default methods route the async API onto the stubbed synchronous methods
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private PostService postService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private PostController postController;
 
@@ -50,7 +65,7 @@ public class PostControllerTest {
         when(postService.getAllPosts()).thenReturn(posts);
 
         // Act
-        ResponseEntity<List<Post>> response = postController.getAllPosts();
+        ResponseEntity<List<Post>> response = postController.getAllPosts(null, null, null, null, null, null).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -58,6 +73,102 @@ public class PostControllerTest {
         verify(postService, times(1)).getAllPosts();
     }
 
+    @Test
+    @WithMockUser
+    public void testGetAllPosts_WithQuery() {
+        // Arrange
+        List<Post> posts = Arrays.asList(
+            new Post(1L, 1L, "Title 1", "Body 1"),
+            new Post(2L, 2L, "Title 2", "Body 2"),
+            new Post(3L, 2L, "Title 3", "Body 3")
+        );
+        when(postService.getAllPosts()).thenReturn(posts);
+
+        // Act
+        ResponseEntity<List<Post>> response = postController.getAllPosts(null, 2, 1, 2L, "id,title", null).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(new Post(3L, null, "Title 3", null)), response.getBody());
+        verify(postService, times(1)).findPosts(any(PostQuery.class));
+    }
+
+    @Test
+    public void testHandleInvalidQuery() {
+        // Act
+        InvalidPostQueryException e = assertThrows(InvalidPostQueryException.class,
+            () -> postController.getAllPosts(null, 0, null, null, null, null));
+        ResponseEntity<String> response = new ApiExceptionHandler().handleInvalidQuery(e);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(postService, never()).findPosts(any());
+    }
+
+    @Test
+    @WithMockUser
+    public void testSearchPosts() {
+        // Arrange
+        List<Post> posts = Arrays.asList(
+            new Post(1L, 1L, "Caching basics", "Body 1"),
+            new Post(2L, 1L, "Title 2", "Body 2")
+        );
+        when(postService.getAllPosts()).thenReturn(posts);
+
+        // Act
+        ResponseEntity<List<Post>> response = postController.searchPosts("caching", null).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(posts.get(0)), response.getBody());
+        verify(postService, times(1)).searchPosts("caching", PostQuery.DEFAULT_PAGE_SIZE);
+        assertThrows(InvalidPostQueryException.class, () -> postController.searchPosts(" ", null));
+    }
+
+    @Test
+    @WithMockUser
+    public void testStreamAllPosts() throws IOException {
+        // Arrange
+        List<Post> posts = Arrays.asList(
+            new Post(1L, 1L, "Title 1", "Body 1"),
+            new Post(2L, 1L, "Title 2", "Body 2")
+        );
+        when(postService.getAllPosts()).thenReturn(posts);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = postController.streamAllPosts(null, null, null, null, null);
+        response.getBody().writeTo(outputStream);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Post[] written = objectMapper.readValue(outputStream.toByteArray(), Post[].class);
+        assertEquals(posts, Arrays.asList(written));
+        verify(postService, times(1)).forEachPost(any());
+    }
+
+    @Test
+    @WithMockUser
+    public void testStreamAllPosts_UpstreamFailsHalfway() {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<Post> consumer = invocation.getArgument(0);
+            consumer.accept(new Post(1L, 1L, "Title 1", "Body 1"));
+            throw new ResourceAccessException("Connection reset");
+        }).when(postService).forEachPost(any());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = postController.streamAllPosts(null, null, null, null, null);
+
+        // Assert
+        assertThrows(ResourceAccessException.class, () -> response.getBody().writeTo(outputStream));
+        String written = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(written.startsWith("[{"));
+        assertFalse(written.endsWith("]"));
+        assertThrows(InvalidPostQueryException.class, () -> postController.streamAllPosts(null, 1, null, null, null));
+    }
+
     @Test
     @WithMockUser
     public void testGetPostById_Found() {
@@ -65,7 +176,7 @@ public class PostControllerTest {
         when(postService.getPostById(1L)).thenReturn(testPost);
 
         // Act
-        ResponseEntity<Post> response = postController.getPostById(1L);
+        ResponseEntity<Post> response = postController.getPostById(1L, null).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -73,6 +184,23 @@ public class PostControllerTest {
         verify(postService, times(1)).getPostById(1L);
     }
 
+    @Test
+    @WithMockUser
+    public void testGetPostById_NotModified() {
+        // Arrange
+        when(postService.getPostById(1L)).thenReturn(testPost);
+        String etag = postController.getPostById(1L, null).join().getHeaders().getETag();
+
+        // Act
+        ResponseEntity<Post> response = postController.getPostById(1L, etag).join();
+
+        // Assert
+        assertNotNull(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
     @Test
     @WithMockUser
     public void testGetPostById_NotFound() {
@@ -80,7 +208,7 @@ public class PostControllerTest {
         when(postService.getPostById(99L)).thenReturn(null);
 
         // Act
-        ResponseEntity<Post> response = postController.getPostById(99L);
+        ResponseEntity<Post> response = postController.getPostById(99L, null).join();
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -97,7 +225,7 @@ public class PostControllerTest {
         when(postService.createPost(newPost)).thenReturn(createdPost);
 
         // Act
-        ResponseEntity<Post> response = postController.createPost(newPost);
+        ResponseEntity<Post> response = postController.createPost(newPost).join();
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -113,7 +241,7 @@ public class PostControllerTest {
         when(postService.createPost(newPost)).thenReturn(null);
 
         // Act
-        ResponseEntity<Post> response = postController.createPost(newPost);
+        ResponseEntity<Post> response = postController.createPost(newPost).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -129,7 +257,7 @@ public class PostControllerTest {
         when(postService.updatePost(eq(1L), any(Post.class))).thenReturn(updatedPost);
 
         // Act
-        ResponseEntity<Post> response = postController.updatePost(1L, testPost);
+        ResponseEntity<Post> response = postController.updatePost(1L, testPost).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -144,7 +272,7 @@ public class PostControllerTest {
         when(postService.updatePost(eq(99L), any(Post.class))).thenReturn(null);
 
         // Act
-        ResponseEntity<Post> response = postController.updatePost(99L, testPost);
+        ResponseEntity<Post> response = postController.updatePost(99L, testPost).join();
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -159,7 +287,7 @@ public class PostControllerTest {
         when(postService.deletePost(1L)).thenReturn(true);
 
         // Act
-        ResponseEntity<Void> response = postController.deletePost(1L);
+        ResponseEntity<Void> response = postController.deletePost(1L).join();
 
         // Assert
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
@@ -173,7 +301,7 @@ public class PostControllerTest {
         when(postService.deletePost(99L)).thenReturn(false);
 
         // Act
-        ResponseEntity<Void> response = postController.deletePost(99L);
+        ResponseEntity<Void> response = postController.deletePost(99L).join();
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -0,0 +1,100 @@
+package com.example.demo_junie.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the PostQuery class.
+ */
+public class PostQueryTest {
+
+    private final List<Post> posts = Arrays.asList(
+        new Post(1L, 1L, "Title 1", "Body 1"),
+        new Post(2L, 2L, "Title 2", "Body 2"),
+        new Post(3L, 1L, "Title 3", "Body 3"),
+        new Post(4L, 1L, "Title 4", "Body 4")
+    );
+
+    @Test
+    public void testApply_FiltersAndPages() {
+        // Arrange
+        PostQuery query = new PostQuery(2, 2, 1L, null);
+
+        // Act
+        List<Post> result = query.apply(posts);
+
+        // Assert
+        assertEquals(List.of(posts.get(3)), result);
+    }
+
+    @Test
+    public void testApply_PageBeyondIntRangeIsEmpty() {
+        // Arrange
+        PostQuery query = new PostQuery(Integer.MAX_VALUE, PostQuery.MAX_PAGE_SIZE, null, null);
+
+        // Act
+        List<Post> result = query.apply(posts);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testApply_ProjectsFields() {
+        // Arrange
+        PostQuery query = new PostQuery(null, null, null, "id, title");
+
+        // Act
+        List<Post> result = query.apply(posts);
+
+        // Assert
+        assertEquals(4, result.size());
+        assertEquals(new Post(1L, null, "Title 1", null), result.get(0));
+    }
+
+    @Test
+    public void testProject_OmitsOnlyUnrequestedFieldsFromJson() throws JsonProcessingException {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        PostQuery query = new PostQuery(null, null, null, "id,title");
+        Post withoutBody = new Post(5L, 1L, "Title 5", null);
+
+        // Act
+        String projected = objectMapper.writerFor(new TypeReference<List<Post>>() { })
+                .writeValueAsString(query.apply(List.of(withoutBody)));
+        String full = objectMapper.writeValueAsString(withoutBody);
+
+        // Assert
+        assertEquals("[{\"id\":5,\"title\":\"Title 5\"}]", projected);
+        assertEquals("{\"id\":5,\"userId\":1,\"title\":\"Title 5\",\"body\":null}", full);
+    }
+
+    @Test
+    public void testToUpstreamParams() {
+        // Arrange
+        PostQuery query = new PostQuery(null, 5, 3L, "title");
+
+        // Act
+        MultiValueMap<String, String> params = query.toUpstreamParams();
+
+        // Assert
+        assertEquals("3", params.getFirst("userId"));
+        assertEquals("1", params.getFirst("_page"));
+        assertEquals("5", params.getFirst("_limit"));
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new PostQuery(0, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new PostQuery(1, PostQuery.MAX_PAGE_SIZE + 1, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new PostQuery(null, null, null, "id,author"));
+    }
+}
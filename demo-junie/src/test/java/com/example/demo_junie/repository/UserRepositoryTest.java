@@ -0,0 +1,138 @@
+package com.example.demo_junie.repository;
+
+import com.example.demo_junie.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the UserRepository class.
+ */
+public class UserRepositoryTest {
+
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = new UserRepository();
+    }
+
+    @Test
+    public void testInsertIfAbsent_AssignsIdAndIndexes() {
+        // Arrange
+        User user = new User("alice", "password", "alice@example.com");
+
+        // Act
+        boolean inserted = userRepository.insertIfAbsent(user);
+
+        // Assert
+        assertTrue(inserted);
+        assertEquals(1L, user.getId());
+        assertSame(user, userRepository.findByUsername("alice"));
+        assertTrue(userRepository.existsByUsername("alice"));
+        assertTrue(userRepository.existsByEmail("alice@example.com"));
+    }
+
+    @Test
+    public void testInsertIfAbsent_IdSequenceContinuesAfterExistingIds() {
+        // Arrange
+        userRepository.insertIfAbsent(new User(5L, "admin", "password", "admin@example.com", null, true));
+        User user = new User("alice", "password", "alice@example.com");
+
+        // Act
+        userRepository.insertIfAbsent(user);
+
+        // Assert
+        assertEquals(6L, user.getId());
+    }
+
+    @Test
+    public void testInsertIfAbsent_DuplicateUsername() {
+        // Arrange
+        userRepository.insertIfAbsent(new User("alice", "password", "alice@example.com"));
+
+        // Act
+        boolean inserted = userRepository.insertIfAbsent(new User("alice", "password", "other@example.com"));
+
+        // Assert
+        assertFalse(inserted);
+        assertFalse(userRepository.existsByEmail("other@example.com"));
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    public void testInsertIfAbsent_RejectedUserKeepsNoIdAndUsesNone() {
+        // Arrange
+        userRepository.insertIfAbsent(new User("alice", "password", "alice@example.com"));
+        User duplicateUsername = new User("alice", "password", "other@example.com");
+        User duplicateEmail = new User("bob", "password", "alice@example.com");
+        User user = new User("carol", "password", "carol@example.com");
+
+        // Act
+        userRepository.insertIfAbsent(duplicateUsername);
+        userRepository.insertIfAbsent(duplicateEmail);
+        userRepository.insertIfAbsent(user);
+
+        // Assert
+        assertNull(duplicateUsername.getId());
+        assertNull(duplicateEmail.getId());
+        assertEquals(2L, user.getId());
+    }
+
+    @Test
+    public void testInsertIfAbsent_DuplicateEmail() {
+        // Arrange
+        userRepository.insertIfAbsent(new User("alice", "password", "alice@example.com"));
+
+        // Act
+        boolean inserted = userRepository.insertIfAbsent(new User("bob", "password", "alice@example.com"));
+
+        // Assert
+        assertFalse(inserted);
+        assertFalse(userRepository.existsByUsername("bob"));
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    public void testInsertIfAbsent_ConcurrentRegistrations() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<Boolean>> registrations = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // Every user is registered twice, so exactly half of the attempts must fail
+            String name = "user" + (i % 500);
+            registrations.add(() -> userRepository.insertIfAbsent(new User(name, "password", name + "@example.com")));
+        }
+
+        try {
+            // Act
+            int inserted = 0;
+            for (Future<Boolean> result : executor.invokeAll(registrations)) {
+                if (result.get()) {
+                    inserted++;
+                }
+            }
+
+            // Assert
+            assertEquals(500, inserted);
+            assertEquals(500, userRepository.count());
+            Set<Long> ids = new HashSet<>();
+            for (int i = 0; i < 500; i++) {
+                ids.add(userRepository.findByUsername("user" + i).getId());
+            }
+            assertEquals(500, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
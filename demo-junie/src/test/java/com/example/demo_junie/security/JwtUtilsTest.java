@@ -0,0 +1,185 @@
+package com.example.demo_junie.security;
+
+import com.example.demo_junie.model.Role;
+import com.example.demo_junie.model.User;
+import com.example.demo_junie.security.service.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JwtUtils class.
+ */
+public class JwtUtilsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JwtUtils jwtUtils;
+
+    private Authentication authentication;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtils = new JwtUtils(meterRegistry);
+
+        UserDetailsImpl userDetails = UserDetailsImpl.build(new User(
+                1L, "admin", "password", "admin@example.com", Collections.singletonList(Role.ROLE_ADMIN), true));
+        authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    @Test
+    public void testParseClaims_ValidToken() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Act
+        Claims claims = jwtUtils.parseClaims(token);
+
+        // Assert
+        assertNotNull(claims);
+        assertEquals("admin", claims.getSubject());
+        assertTrue(jwtUtils.validateJwtToken(token));
+        assertEquals("admin", jwtUtils.getUsernameFromJwtToken(token));
+    }
+
+    @Test
+    public void testParseClaims_ReturnsCachedClaims() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Act
+        Claims first = jwtUtils.parseClaims(token);
+        Claims second = jwtUtils.parseClaims(token);
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testParseClaims_TamperedToken() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // Act & Assert
+        assertNull(jwtUtils.parseClaims(tampered));
+        assertFalse(jwtUtils.validateJwtToken(tampered));
+        assertThrows(JwtException.class, () -> jwtUtils.getUsernameFromJwtToken(tampered));
+    }
+
+    @Test
+    public void testParseClaims_EmptyToken() {
+        // Act & Assert
+        assertNull(jwtUtils.parseClaims(""));
+        assertNull(jwtUtils.parseClaims(null));
+    }
+
+    @Test
+    public void testParseClaims_RecordsValidations() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Act
+        jwtUtils.parseClaims(token);
+        jwtUtils.parseClaims(token);
+        jwtUtils.parseClaims(token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA"));
+        jwtUtils.parseClaims(null);
+
+        // Assert
+        assertEquals(1, validations("valid", "miss"));
+        assertEquals(1, validations("valid", "hit"));
+        assertEquals(1, validations("invalid", "miss"));
+        assertEquals(1, validations("missing", "miss"));
+    }
+
+    @Test
+    public void testParseToken_RemembersRejectedTokens() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // Act
+        jwtUtils.parseToken(tampered);
+        jwtUtils.parseToken(tampered);
+        jwtUtils.parseToken("not a token");
+        jwtUtils.parseToken(token.substring(0, token.lastIndexOf('.') + 1));
+
+        // Assert
+        assertEquals(1, validations("invalid", "miss"));
+        assertEquals(1, validations("invalid", "hit"));
+        assertEquals(1, validations("malformed", "miss"));
+        assertEquals(1, validations("unsupported", "miss"));
+    }
+
+    @Test
+    public void testParseToken_SharesPrincipalPerToken() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Act
+        JwtUtils.VerifiedToken first = jwtUtils.parseToken(token);
+        JwtUtils.VerifiedToken second = jwtUtils.parseToken(token);
+        JwtUtils.VerifiedToken fromHeader = jwtUtils.parseBearerToken(JwtConstants.TOKEN_PREFIX + token);
+
+        // Assert
+        assertNotNull(first.getUserDetails());
+        assertEquals("admin", fromHeader.getClaims().getSubject());
+        assertNull(jwtUtils.parseBearerToken("Basic YWRtaW46cGFzc3dvcmQ="));
+        assertEquals("admin", first.getUserDetails().getUsername());
+        assertSame(first.getUserDetails(), second.getUserDetails());
+    }
+
+    @Test
+    public void testParseBearerToken_SharesCacheWithParseToken() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+        jwtUtils.parseBearerToken(JwtConstants.TOKEN_PREFIX + token);
+
+        // Act
+        jwtUtils.parseToken(token);
+
+        // Assert
+        assertEquals(1, validations("valid", "miss"));
+        assertEquals(1, validations("valid", "hit"));
+    }
+
+    @Test
+    public void testGetUserDetailsFromClaims_EmbeddedUserData() {
+        // Arrange
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Act
+        UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromClaims(jwtUtils.parseClaims(token));
+
+        // Assert
+        assertNotNull(userDetails);
+        assertEquals(1L, userDetails.getId());
+        assertEquals("admin", userDetails.getUsername());
+        assertEquals("admin@example.com", userDetails.getEmail());
+        assertEquals(1, userDetails.getAuthorities().size());
+        assertEquals("ROLE_ADMIN", userDetails.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    public void testGetUserDetailsFromClaims_NoRolesClaim() {
+        // Arrange
+        Claims claims = Jwts.claims().setSubject("admin");
+
+        // Act & Assert
+        assertNull(jwtUtils.getUserDetailsFromClaims(claims));
+    }
+
+    private long validations(String result, String cache) {
+        return meterRegistry.get("security.jwt.validations").tag("result", result).tag("cache", cache).timer().count();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo_junie.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the PooledPasswordEncoder class.
+ */
+public class PooledPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PooledPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    public void tearDown() {
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    public void testEncodeAndMatches() {
+        // Arrange
+        passwordEncoder = new PooledPasswordEncoder(new BCryptPasswordEncoder(4), 2, 10, meterRegistry);
+
+        // Act
+        String encoded = passwordEncoder.encode("admin123");
+
+        // Assert
+        assertTrue(passwordEncoder.matches("admin123", encoded));
+        assertFalse(passwordEncoder.matches("wrong", encoded));
+        assertEquals(1, meterRegistry.get("security.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("security.password.hashing").tag("operation", "matches").timer().count());
+        assertEquals(3, meterRegistry.get("security.password.hashing.wait").timer().count());
+    }
+
+    @Test
+    public void testRejectsWhenSaturated() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                running.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        passwordEncoder = new PooledPasswordEncoder(blockingEncoder, 1, 1, meterRegistry);
+
+        // Act
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("queued"));
+        while (meterRegistry.get("security.password.hashing.queue").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // Assert
+        assertThrows(PasswordHashingRejectedException.class, () -> passwordEncoder.encode("rejected"));
+        assertEquals(1, meterRegistry.get("security.password.hashing.rejected").counter().count());
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSupplyAsync_ReleasesCallerAndHashesInline() throws Exception {
+        // Arrange
+        passwordEncoder = new PooledPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, meterRegistry);
+        Thread caller = Thread.currentThread();
+
+        // Act
+        CompletableFuture<Boolean> result = passwordEncoder.supplyAsync(() -> {
+            // A nested submit would wait for the pool's only thread, which is running this task
+            String encoded = passwordEncoder.encode("admin123");
+            return Thread.currentThread() != caller && passwordEncoder.matches("admin123", encoded);
+        });
+
+        // Assert
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("security.password.hashing.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("security.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("security.password.hashing.wait").timer().count());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo_junie.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the PublicPaths class.
+ */
+public class PublicPathsTest {
+
+    @Test
+    public void testMatches_PublicPaths() {
+        assertTrue(PublicPaths.matches("/api/auth/login"));
+        assertTrue(PublicPaths.matches("/api-docs"));
+        assertTrue(PublicPaths.matches("/api-docs/"));
+        assertTrue(PublicPaths.matches("/swagger-ui/index.html"));
+        assertTrue(PublicPaths.matches("/v3/api-docs/swagger-config"));
+        assertTrue(PublicPaths.matches("/actuator/health"));
+    }
+
+    @Test
+    public void testMatches_ProtectedPaths() {
+        assertFalse(PublicPaths.matches("/api/posts"));
+        assertFalse(PublicPaths.matches("/api/posts/1"));
+        assertFalse(PublicPaths.matches("/api/authx"));
+        assertFalse(PublicPaths.matches("/api-docsx"));
+        assertFalse(PublicPaths.matches("/actuator/prometheus"));
+        assertFalse(PublicPaths.matches("/actuator/healthx"));
+        assertFalse(PublicPaths.matches("/"));
+    }
+}
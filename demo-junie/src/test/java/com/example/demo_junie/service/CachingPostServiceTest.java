@@ -0,0 +1,351 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CachingPostService class.
+ */
+public class CachingPostServiceTest {
+
+    // Real default methods route the async API onto the stubbed synchronous methods
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private PostService delegate;
+
+    private PostStore postStore;
+
+    private CachingPostService cachingPostService;
+
+    private Post testPost;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        postStore = new PostStore(delegate, Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+        cachingPostService = new CachingPostService(delegate, postStore, new SimpleMeterRegistry(), Duration.ofMinutes(1), Duration.ofMinutes(5), 100, 2, 10);
+
+        testPost = new Post(1L, 1L, "Test Title", "Test Body");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cachingPostService.destroy();
+    }
+
+    @Test
+    public void testGetPostById_CachesResult() {
+        // Arrange
+        when(delegate.getPostById(1L)).thenReturn(testPost);
+
+        // Act
+        Post first = cachingPostService.getPostById(1L);
+        Post second = cachingPostService.getPostById(1L);
+
+        // Assert
+        assertEquals(testPost, first);
+        assertEquals(testPost, second);
+        verify(delegate, times(1)).getPostById(1L);
+    }
+
+    @Test
+    public void testGetPostById_NotFoundIsNotCached() {
+        // Arrange
+        when(delegate.getPostById(99L)).thenReturn(null);
+
+        // Act
+        cachingPostService.getPostById(99L);
+        Post result = cachingPostService.getPostById(99L);
+
+        // Assert
+        assertNull(result);
+        verify(delegate, times(2)).getPostById(99L);
+    }
+
+    @Test
+    public void testGetAllPosts_SeedsPostCache() {
+        // Arrange
+        List<Post> posts = Arrays.asList(
+            new Post(1L, 1L, "Title 1", "Body 1"),
+            new Post(2L, 1L, "Title 2", "Body 2")
+        );
+        when(delegate.getAllPosts()).thenReturn(posts);
+
+        // Act
+        cachingPostService.getAllPosts();
+        List<Post> result = cachingPostService.getAllPosts();
+        Post post = cachingPostService.getPostById(2L);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(posts.get(1), post);
+        verify(delegate, times(1)).getAllPosts();
+        verify(delegate, never()).getPostById(anyLong());
+    }
+
+    @Test
+    public void testGetAllPosts_EmptyResultIsNotCached() {
+        // Arrange
+        when(delegate.getAllPosts()).thenReturn(Collections.emptyList());
+
+        // Act
+        cachingPostService.getAllPosts();
+        List<Post> result = cachingPostService.getAllPosts();
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(delegate, times(2)).getAllPosts();
+    }
+
+    @Test
+    public void testForEachPost_UsesCachedListWhenLoaded() {
+        // Arrange
+        List<Post> posts = Arrays.asList(
+            new Post(1L, 1L, "Title 1", "Body 1"),
+            new Post(2L, 1L, "Title 2", "Body 2")
+        );
+        when(delegate.getAllPosts()).thenReturn(posts);
+        List<Post> streamed = new ArrayList<>();
+
+        // Act
+        cachingPostService.forEachPost(streamed::add);
+        cachingPostService.getAllPosts();
+        cachingPostService.forEachPost(streamed::add);
+
+        // Assert
+        assertEquals(4, streamed.size());
+        verify(delegate, times(1)).forEachPost(any());
+        verify(delegate, times(2)).getAllPosts();
+    }
+
+    @Test
+    public void testReads_FallBackToStoreWhenUpstreamFails() {
+        // Arrange
+        postStore.replaceAll(Collections.singletonList(testPost));
+        when(delegate.getAllPosts()).thenReturn(Collections.emptyList());
+        when(delegate.getPostById(anyLong())).thenReturn(null);
+
+        // Act
+        List<Post> all = cachingPostService.getAllPosts();
+        Post found = cachingPostService.getPostById(1L);
+        Post missing = cachingPostService.getPostById(99L);
+
+        // Assert
+        assertEquals(Collections.singletonList(testPost), all);
+        assertEquals(testPost, found);
+        assertNull(missing);
+    }
+
+    @Test
+    public void testGetPostById_ServesStaleWhileRevalidating() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        CachingPostService service = new CachingPostService(delegate, postStore, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5), 100, nanos::get, Runnable::run);
+        Post refreshed = new Post(1L, 1L, "New Title", "Test Body");
+        CompletableFuture<Post> reload = new CompletableFuture<>();
+        doReturn(CompletableFuture.completedFuture(testPost), reload).when(delegate).getPostByIdAsync(1L);
+        service.getPostById(1L);
+
+        // Act
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        Post stale = service.getPostById(1L);
+        reload.complete(refreshed);
+        Post fresh = service.getPostById(1L);
+
+        // Assert
+        assertEquals(testPost, stale);
+        assertEquals(refreshed, fresh);
+        verify(delegate, times(2)).getPostByIdAsync(1L);
+    }
+
+    @Test
+    public void testGetPostById_StaleReadDoesNotWaitForBlockingReload() throws InterruptedException {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CachingPostService service = new CachingPostService(delegate, postStore, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5), 100, nanos::get, executor);
+        Post refreshed = new Post(1L, 1L, "New Title", "Test Body");
+        CountDownLatch upstreamResponds = new CountDownLatch(1);
+        when(delegate.getPostById(1L)).thenReturn(testPost).thenAnswer(invocation -> {
+            upstreamResponds.await();
+            return refreshed;
+        });
+        service.getPostById(1L);
+
+        try {
+            // Act
+            nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+            Post stale = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> service.getPostById(1L));
+
+            // Assert
+            assertEquals(testPost, stale);
+            upstreamResponds.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(refreshed, service.getPostById(1L));
+        } finally {
+            upstreamResponds.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGetPostByIdAsync_MissDoesNotBlockCaller() {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CachingPostService service = new CachingPostService(delegate, postStore, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5), 100, System::nanoTime, executor);
+        CountDownLatch upstreamResponds = new CountDownLatch(1);
+        when(delegate.getPostById(1L)).thenAnswer(invocation -> {
+            upstreamResponds.await();
+            return testPost;
+        });
+
+        try {
+            // Act
+            CompletableFuture<Post> loading = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                    () -> service.getPostByIdAsync(1L));
+
+            // Assert
+            assertFalse(loading.isDone());
+            upstreamResponds.countDown();
+            assertEquals(testPost, loading.join());
+        } finally {
+            upstreamResponds.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGetPostById_FailsFastWhenLoadPoolIsFull() {
+        // Arrange
+        ThreadPoolExecutor executor = CachingPostService.loadExecutor(1, 1);
+        CachingPostService service = new CachingPostService(delegate, postStore, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5), 100, System::nanoTime, executor);
+        CountDownLatch upstreamResponds = new CountDownLatch(1);
+        when(delegate.getPostById(anyLong())).thenAnswer(invocation -> {
+            upstreamResponds.await();
+            return testPost;
+        });
+
+        try {
+            // Act
+            CompletableFuture<Post> running = service.getPostByIdAsync(1L);
+            CompletableFuture<Post> queued = service.getPostByIdAsync(2L);
+            UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                    () -> service.getPostById(3L));
+
+            // Assert
+            assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+            upstreamResponds.countDown();
+            assertEquals(testPost, running.join());
+            assertEquals(testPost, queued.join());
+            verify(delegate, never()).getPostById(3L);
+        } finally {
+            upstreamResponds.countDown();
+            service.destroy();
+        }
+    }
+
+    @Test
+    public void testGetPostById_ServesStaleOnErrorUntilMaxStaleness() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        CachingPostService service = new CachingPostService(delegate, postStore, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5), 100, nanos::get, Runnable::run);
+        when(delegate.getPostById(1L)).thenReturn(testPost, (Post) null);
+        service.getPostById(1L);
+
+        // Act
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        Post staleAfterFailedRefresh = service.getPostById(1L);
+        nanos.addAndGet(Duration.ofMinutes(3).toNanos());
+        Post stillStale = service.getPostById(1L);
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        Post expired = service.getPostById(1L);
+
+        // Assert
+        assertEquals(testPost, staleAfterFailedRefresh);
+        assertEquals(testPost, stillStale);
+        assertNull(expired);
+    }
+
+    @Test
+    public void testFindPosts_ServedFromLoadedStore() {
+        // Arrange
+        postStore.replaceAll(Arrays.asList(
+            new Post(1L, 1L, "Title 1", "Body 1"),
+            new Post(2L, 2L, "Title 2", "Body 2")
+        ));
+        Post createdPost = new Post(3L, 2L, "Title 3", "Body 3");
+        when(delegate.createPost(any(Post.class))).thenReturn(createdPost);
+
+        // Act
+        cachingPostService.createPost(new Post(null, 2L, "Title 3", "Body 3"));
+        List<Post> result = cachingPostService.findPosts(new PostQuery(null, null, 2L, null));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(createdPost, result.get(1));
+        verify(delegate, never()).findPosts(any());
+        verify(delegate, never()).getAllPosts();
+    }
+
+    @Test
+    public void testUpdatePost_WritesThroughAndInvalidatesList() {
+        // Arrange
+        Post updatedPost = new Post(1L, 1L, "Updated Title", "Updated Body");
+        when(delegate.getAllPosts()).thenReturn(Collections.singletonList(testPost));
+        when(delegate.updatePost(eq(1L), any(Post.class))).thenReturn(updatedPost);
+        cachingPostService.getAllPosts();
+
+        // Act
+        cachingPostService.updatePost(1L, updatedPost);
+        Post result = cachingPostService.getPostById(1L);
+        cachingPostService.getAllPosts();
+
+        // Assert
+        assertEquals(updatedPost, result);
+        verify(delegate, never()).getPostById(anyLong());
+        verify(delegate, times(2)).getAllPosts();
+    }
+
+    @Test
+    public void testDeletePost_InvalidatesEntry() {
+        // Arrange
+        when(delegate.getPostById(1L)).thenReturn(testPost);
+        when(delegate.deletePost(1L)).thenReturn(true);
+        cachingPostService.getPostById(1L);
+
+        // Act
+        cachingPostService.deletePost(1L);
+        cachingPostService.getPostById(1L);
+
+        // Assert
+        verify(delegate, times(2)).getPostById(1L);
+    }
+}
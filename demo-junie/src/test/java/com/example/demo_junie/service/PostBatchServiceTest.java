@@ -0,0 +1,147 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.dto.PostBatchOperation;
+import com.example.demo_junie.dto.PostBatchResult;
+import com.example.demo_junie.model.Post;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PostBatchService class.
+ */
+public class PostBatchServiceTest {
+
+    @Mock
+    private PostService postService;
+
+    private PostBatchService postBatchService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        postBatchService = new PostBatchService(postService, 4, 10, 12);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        postBatchService.destroy();
+    }
+
+    @Test
+    public void testExecute_ReturnsPerItemStatusInOrder() {
+        // Arrange
+        Post newPost = new Post(null, 1L, "New Title", "New Body");
+        Post createdPost = new Post(101L, 1L, "New Title", "New Body");
+        when(postService.createPost(newPost)).thenReturn(createdPost);
+        when(postService.updatePost(eq(99L), any(Post.class))).thenReturn(null);
+        when(postService.deletePost(1L)).thenReturn(true);
+
+        List<PostBatchOperation> operations = Arrays.asList(
+            new PostBatchOperation(PostBatchOperation.Type.CREATE, null, newPost),
+            new PostBatchOperation(PostBatchOperation.Type.UPDATE, 99L, newPost),
+            new PostBatchOperation(PostBatchOperation.Type.DELETE, 1L, null),
+            new PostBatchOperation(PostBatchOperation.Type.DELETE, null, null)
+        );
+
+        // Act
+        List<PostBatchResult> results = postBatchService.execute(operations).join();
+
+        // Assert
+        assertEquals(4, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(createdPost, results.get(0).getPost());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals(204, results.get(2).getStatus());
+        assertEquals(400, results.get(3).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+    }
+
+    @Test
+    public void testGetPostsByIds_DedupesAndKeepsRequestOrder() {
+        // Arrange
+        when(postService.getPostById(3L)).thenReturn(new Post(3L, 1L, "Title 3", "Body 3"));
+        when(postService.getPostById(1L)).thenReturn(new Post(1L, 1L, "Title 1", "Body 1"));
+        when(postService.getPostById(99L)).thenReturn(null);
+
+        // Act
+        List<Post> posts = postBatchService.getPostsByIds(Arrays.asList(3L, 99L, 1L, 3L)).join();
+
+        // Assert
+        assertEquals(2, posts.size());
+        assertEquals(3L, posts.get(0).getId());
+        assertEquals(1L, posts.get(1).getId());
+        verify(postService, times(1)).getPostById(3L);
+        assertThrows(IllegalArgumentException.class,
+            () -> postBatchService.getPostsByIds(Collections.emptyList()));
+    }
+
+    @Test
+    public void testExecute_BoundsParallelism() throws InterruptedException {
+        // Arrange
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch saturated = new CountDownLatch(4);
+        when(postService.deletePost(anyLong())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            saturated.countDown();
+            saturated.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return true;
+        });
+        List<PostBatchOperation> operations = Collections.nCopies(10,
+            new PostBatchOperation(PostBatchOperation.Type.DELETE, 1L, null));
+
+        // Act
+        List<PostBatchResult> results = postBatchService.execute(operations).join();
+
+        // Assert
+        assertEquals(10, results.size());
+        assertEquals(4, maxRunning.get());
+        assertThrows(IllegalArgumentException.class,
+            () -> postBatchService.execute(Collections.nCopies(11, operations.get(0))));
+    }
+
+    @Test
+    public void testExecute_RejectsBatchThatExceedsPendingLimit() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(postService.deletePost(1L)).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+        when(postService.deletePost(2L)).thenReturn(true);
+        PostBatchOperation blocking = new PostBatchOperation(PostBatchOperation.Type.DELETE, 1L, null);
+        PostBatchOperation other = new PostBatchOperation(PostBatchOperation.Type.DELETE, 2L, null);
+        CompletableFuture<List<PostBatchResult>> first = postBatchService.execute(Collections.nCopies(10, blocking));
+
+        // Act & Assert
+        BatchCapacityExceededException e = assertThrows(BatchCapacityExceededException.class,
+            () -> postBatchService.execute(Collections.nCopies(3, other)));
+        assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+        verify(postService, never()).deletePost(2L);
+
+        release.countDown();
+        assertEquals(10, first.join().size());
+        assertEquals(3, postBatchService.execute(Collections.nCopies(3, other)).join().size());
+    }
+
+    @Test
+    public void testConstructor_RejectsPendingLimitBelowBatchSize() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PostBatchService(postService, 4, 10, 9));
+    }
+}
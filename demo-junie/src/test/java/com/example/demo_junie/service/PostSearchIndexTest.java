@@ -0,0 +1,68 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the PostSearchIndex class.
+ */
+public class PostSearchIndexTest {
+
+    private final PostSearchIndex index = PostSearchIndex.of(Arrays.asList(
+        new Post(1L, 1L, "Spring caching", "How to add a cache in front of a slow service"),
+        new Post(2L, 1L, "Thread pools", "Sizing pools for caching layers and blocking calls"),
+        new Post(3L, 2L, "Virtual threads", "Project Loom makes blocking cheap")
+    ));
+
+    @Test
+    public void testSearch_RanksTitleMatchesFirst() {
+        // Act
+        List<Post> result = index.search("Caching", 10);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(2L, result.get(1).getId());
+    }
+
+    @Test
+    public void testSearch_MatchesAnyTermAndHonoursLimit() {
+        // Act
+        List<Post> all = index.search("blocking, CACHE!", 10);
+        List<Post> limited = index.search("blocking cache", 1);
+
+        // Assert
+        assertEquals(3, all.size());
+        assertEquals(1, limited.size());
+        assertEquals(all.get(0), limited.get(0));
+        assertTrue(index.search("kubernetes", 10).isEmpty());
+    }
+
+    @Test
+    public void testPutAndRemove_UpdateIndex() {
+        // Arrange
+        PostSearchIndex updated = PostSearchIndex.of(Arrays.asList(
+            new Post(1L, 1L, "Spring caching", "Body"),
+            new Post(2L, 1L, "Thread pools", "Body")
+        ));
+
+        // Act
+        updated.put(new Post(1L, 1L, "Connection pools", "Body"));
+        updated.remove(2L);
+
+        // Assert
+        assertEquals(1, updated.size());
+        assertTrue(updated.search("caching", 10).isEmpty());
+        assertEquals(1L, updated.search("pools", 10).get(0).getId());
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals(Arrays.asList("qui", "est", "esse", "42"), PostSearchIndex.tokenize("Qui est-esse (42)"));
+    }
+}
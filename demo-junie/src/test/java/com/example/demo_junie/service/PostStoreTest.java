@@ -0,0 +1,169 @@
+package com.example.demo_junie.service;
+
+import com.example.demo_junie.model.Post;
+import com.example.demo_junie.model.PostQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PostStore class.
+ */
+public class PostStoreTest {
+
+    @Mock
+    private PostService upstream;
+
+    private PostStore postStore;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        postStore = new PostStore(upstream, Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+    }
+
+    @Test
+    public void testRefresh_BuildsPrimaryAndUserIndex() {
+        // Arrange
+        when(upstream.getAllPosts()).thenReturn(Arrays.asList(
+            new Post(3L, 2L, "Title 3", "Body 3"),
+            new Post(1L, 1L, "Title 1", "Body 1"),
+            new Post(2L, 2L, "Title 2", "Body 2")
+        ));
+
+        // Act
+        boolean refreshed = postStore.refresh();
+
+        // Assert
+        assertTrue(refreshed);
+        assertTrue(postStore.isLoaded());
+        assertEquals(3, postStore.size());
+        assertEquals("Title 1", postStore.findById(1L).getTitle());
+        assertNull(postStore.findById(4L));
+        List<Post> byUser = postStore.findByUserId(2L);
+        assertEquals(2L, byUser.get(0).getId());
+        assertEquals(3L, byUser.get(1).getId());
+        assertTrue(postStore.findByUserId(9L).isEmpty());
+    }
+
+    @Test
+    public void testAfterPropertiesSet_RefreshDisabled() {
+        // Arrange
+        PostStore disabled = new PostStore(upstream, Duration.ofMinutes(5), Duration.ofSeconds(30), false);
+
+        // Act
+        disabled.afterPropertiesSet();
+        disabled.destroy();
+
+        // Assert
+        verifyNoInteractions(upstream);
+        assertFalse(disabled.isLoaded());
+        assertTrue(disabled.isReady());
+    }
+
+    @Test
+    public void testAddLoadListener_CalledOnceAfterStoreReportsLoaded() {
+        // Arrange
+        List<Post> posts = Arrays.asList(new Post(1L, 1L, "Title 1", "Body 1"));
+        when(upstream.getAllPosts()).thenReturn(posts);
+        List<Integer> sizes = new ArrayList<>();
+        postStore.addLoadListener(loaded -> {
+            assertTrue(postStore.isLoaded());
+            assertFalse(postStore.isReady());
+            sizes.add(loaded.size());
+        });
+
+        // Act
+        postStore.refresh();
+        postStore.replaceAll(posts);
+        postStore.addLoadListener(loaded -> sizes.add(-loaded.size()));
+
+        // Assert
+        assertTrue(postStore.isReady());
+        assertEquals(Arrays.asList(1, -1), sizes);
+    }
+
+    @Test
+    public void testRefresh_EmptyResultKeepsSnapshot() {
+        // Arrange
+        postStore.replaceAll(Collections.singletonList(new Post(1L, 1L, "Title 1", "Body 1")));
+        when(upstream.getAllPosts()).thenReturn(Collections.emptyList());
+
+        // Act
+        boolean refreshed = postStore.refresh();
+
+        // Assert
+        assertFalse(refreshed);
+        assertEquals(1, postStore.size());
+    }
+
+    @Test
+    public void testUpdate_AppliesOnlyDifferences() {
+        // Arrange
+        Post unchanged = new Post(1L, 1L, "Caching", "Body 1");
+        postStore.replaceAll(Arrays.asList(unchanged, new Post(2L, 1L, "Pools", "Body 2")));
+
+        // Act
+        int changes = postStore.update(Arrays.asList(
+            new Post(1L, 1L, "Caching", "Body 1"),
+            new Post(3L, 2L, "Threads", "Body 3")
+        ));
+        int repeated = postStore.update(Arrays.asList(
+            new Post(1L, 1L, "Caching", "Body 1"),
+            new Post(3L, 2L, "Threads", "Body 3")
+        ));
+
+        // Assert
+        assertEquals(2, changes);
+        assertEquals(0, repeated);
+        assertEquals(unchanged, postStore.findById(1L));
+        assertNull(postStore.findById(2L));
+        assertTrue(postStore.search("pools", 10).isEmpty());
+        assertEquals(3L, postStore.search("threads", 10).get(0).getId());
+    }
+
+    @Test
+    public void testPutAndRemove_UpdateIndexes() {
+        // Arrange
+        postStore.replaceAll(Arrays.asList(
+            new Post(1L, 1L, "Title 1", "Body 1"),
+            new Post(2L, 1L, "Title 2", "Body 2")
+        ));
+
+        // Act
+        postStore.put(new Post(2L, 3L, "Moved", "Body 2"));
+        postStore.remove(1L);
+
+        // Assert
+        assertEquals(1, postStore.size());
+        assertTrue(postStore.findByUserId(1L).isEmpty());
+        assertEquals("Moved", postStore.findByUserId(3L).get(0).getTitle());
+    }
+
+    @Test
+    public void testFind_PagesWithinAuthor() {
+        // Arrange
+        postStore.replaceAll(Arrays.asList(
+            new Post(1L, 1L, "Title 1", "Body 1"),
+            new Post(2L, 2L, "Title 2", "Body 2"),
+            new Post(3L, 1L, "Title 3", "Body 3"),
+            new Post(4L, 1L, "Title 4", "Body 4")
+        ));
+
+        // Act
+        List<Post> result = postStore.find(new PostQuery(2, 2, 1L, "id"));
+
+        // Assert
+        assertEquals(Collections.singletonList(new Post(4L, null, null, null)), result);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo_junie.service;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the UpstreamGuard class.
+ */
+public class UpstreamGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UpstreamGuard upstreamGuard = new UpstreamGuard(meterRegistry,
+            50, 100, Duration.ofSeconds(2), 4, 4, Duration.ofMinutes(1), 1);
+
+    @Test
+    public void testCall_OpensAfterFailuresAndRejectsFast() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class, () -> upstreamGuard.call(UpstreamGuard.GET_POST, () -> {
+                calls.incrementAndGet();
+                throw new ResourceAccessException("Read timed out");
+            }));
+        }
+
+        // Act & Assert
+        assertTrue(upstreamGuard.isOpen());
+        assertThrows(CallNotPermittedException.class,
+                () -> upstreamGuard.call(UpstreamGuard.GET_POST, calls::incrementAndGet));
+        assertThrows(CallNotPermittedException.class,
+                () -> upstreamGuard.stream(UpstreamGuard.STREAM_POSTS, calls::incrementAndGet));
+        assertEquals(4, calls.get());
+        assertEquals(1.0, meterRegistry.get("upstream.circuitbreaker.transitions")
+                .tag("from", "CLOSED").tag("to", "OPEN").counter().count());
+    }
+
+    @Test
+    public void testCall_ClientErrorsDoNotOpen() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpClientErrorException.class, () -> upstreamGuard.call(UpstreamGuard.GET_POST, () -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            }));
+        }
+
+        // Assert
+        assertFalse(upstreamGuard.isOpen());
+        assertEquals("ok", upstreamGuard.call(UpstreamGuard.GET_POST, () -> "ok"));
+    }
+
+    @Test
+    public void testCall_BulkheadRejectsConcurrentCallsPerOperation() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread inFlight = new Thread(() -> upstreamGuard.call(UpstreamGuard.GET_ALL_POSTS, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        inFlight.start();
+        started.await();
+
+        try {
+            // Act & Assert
+            assertThrows(BulkheadFullException.class, () -> upstreamGuard.call(UpstreamGuard.GET_ALL_POSTS, () -> "second"));
+            assertEquals("other", upstreamGuard.call(UpstreamGuard.GET_POST, () -> "other"));
+        } finally {
+            release.countDown();
+            inFlight.join();
+        }
+    }
+
+    @Test
+    public void testCall_RecordsOutcomeAndStatus() {
+        // Act
+        upstreamGuard.call(UpstreamGuard.GET_POST, () -> ResponseEntity.ok("ok"));
+        assertThrows(HttpClientErrorException.class, () -> upstreamGuard.call(UpstreamGuard.GET_POST, () -> {
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+        }));
+        assertThrows(ResourceAccessException.class, () -> upstreamGuard.call(UpstreamGuard.CREATE_POST, () -> {
+            throw new ResourceAccessException("Connection refused");
+        }));
+
+        // Assert
+        assertEquals(1, calls(UpstreamGuard.GET_POST, "SUCCESS", "200"));
+        assertEquals(1, calls(UpstreamGuard.GET_POST, "CLIENT_ERROR", "404"));
+        assertEquals(1, calls(UpstreamGuard.CREATE_POST, "UNKNOWN", "NONE"));
+    }
+
+    private long calls(String operation, String outcome, String status) {
+        return meterRegistry.get("upstream.calls")
+                .tag("operation", operation).tag("outcome", outcome).tag("status", status).timer().count();
+    }
+}